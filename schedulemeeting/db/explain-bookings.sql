@@ -0,0 +1,52 @@
+-- 检查 RoomBookingRepository 主要查询的执行计划，配合 seed-bookings.sql 使用
+--   psql -d meeting_booking -f db/explain-bookings.sql
+-- 期望分别命中 idx_room_booking_room_time、idx_room_booking_organizer_start_id、idx_room_booking_start_end
+-- 带时间条件的查询应只扫描一到两个月份分区
+
+\set room_id '(SELECT min(id) FROM meeting_room WHERE name LIKE ''压测会议室%'')'
+
+-- findConflictingBookings
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM room_booking b
+WHERE b.room_id = :room_id
+  AND b.status = 'CONFIRMED'
+  AND b.start_time >= CURRENT_DATE + TIME '10:00' - INTERVAL '24 hours'
+  AND b.start_time < CURRENT_DATE + TIME '11:00'
+  AND b.end_time > CURRENT_DATE + TIME '10:00';
+
+-- findByOrganizer
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM room_booking b
+WHERE b.organizer = '用户42'
+ORDER BY b.start_time DESC;
+
+-- findOrganizerPageAsc（"我的预订"翻页，游标位于一年后）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM room_booking b
+WHERE b.organizer = '用户42'
+  AND b.end_time > now()
+  AND b.start_time >= CURRENT_DATE + 365
+  AND (b.start_time > CURRENT_DATE + 365 OR b.id > 0)
+  AND b.start_time < '9999-12-31'
+ORDER BY b.start_time, b.id
+LIMIT 21;
+
+-- findBookingsBetween（RoomStatusService 查询当天预订）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM room_booking b
+WHERE b.start_time >= CURRENT_DATE
+  AND b.start_time <= CURRENT_DATE + 1
+  AND b.end_time <= CURRENT_DATE + 1
+ORDER BY b.start_time;
+
+-- findConfirmedEndingAfter（启动时加载内存索引）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM room_booking b
+WHERE b.status = 'CONFIRMED'
+  AND b.start_time >= CURRENT_DATE - INTERVAL '24 hours'
+  AND b.end_time > CURRENT_DATE;
@@ -0,0 +1,56 @@
+-- 本地压测数据：批量生成会议室和预订，用于检查执行计划和查询耗时
+-- 需先启动一次应用完成 Flyway 迁移，然后执行：
+--   psql -d meeting_booking -v rooms=200 -v days=1825 -f db/seed-bookings.sql
+-- 默认 200 个会议室 × 1825 天 × 每天 8 个时段，按 80% 占用率约 230 万条预订
+-- 时段按整点切分且时长不超过一小时，同一会议室不会重叠，满足 room_booking_no_overlap
+
+\if :{?rooms}
+\else
+    \set rooms 200
+\endif
+\if :{?days}
+\else
+    \set days 1825
+\endif
+
+\timing on
+
+-- 压测会议室统一使用 "压测会议室" 前缀，重复执行前先清理上一轮数据
+DELETE
+FROM room_booking
+WHERE room_id IN (SELECT id FROM meeting_room WHERE name LIKE '压测会议室%');
+
+INSERT INTO meeting_room (name, capacity, location, facilities)
+SELECT '压测会议室' || lpad(g::text, 4, '0'),
+       (ARRAY [4, 6, 10, 20, 50])[1 + g % 5],
+       (1 + g % 20) || '楼',
+       (ARRAY ['白板', '投影仪,白板', '投影仪,白板,视频会议', '白板,电话会议', '投影仪,音响系统'])[1 + g % 5]
+FROM generate_series(1, :rooms) AS g
+ON CONFLICT (name) DO NOTHING;
+
+-- room_booking 按月分区，先补齐数据覆盖范围内的分区
+SELECT ensure_room_booking_partitions(CURRENT_DATE - (:days / 2), :days / 28 + 2);
+
+-- 时间跨度以今天为中心，一半历史数据一半未来数据，贴近实际的查询分布
+INSERT INTO room_booking (room_id, title, organizer, start_time, end_time, attendees, description, status)
+SELECT r.id,
+       (ARRAY ['周会', '需求评审', '技术分享', '客户沟通', '面试', '项目复盘'])[1 + floor(random() * 6)::int],
+       '用户' || (1 + floor(random() * 2000)::int),
+       s.slot_start,
+       s.slot_start + (ARRAY [30, 45, 60])[1 + floor(random() * 3)::int] * INTERVAL '1 minute',
+       1 + floor(random() * r.capacity)::int,
+       NULL,
+       CASE WHEN random() < 0.05 THEN 'CANCELLED' ELSE 'CONFIRMED' END
+FROM meeting_room r
+         CROSS JOIN LATERAL (
+    SELECT (CURRENT_DATE - (:days / 2) + d) + (9 + h) * INTERVAL '1 hour' AS slot_start
+    FROM generate_series(0, :days - 1) AS d,
+         generate_series(0, 7) AS h
+    ) s
+WHERE r.name LIKE '压测会议室%'
+  AND random() < 0.8;
+
+ANALYZE meeting_room;
+ANALYZE room_booking;
+
+SELECT count(*) AS bookings FROM room_booking;
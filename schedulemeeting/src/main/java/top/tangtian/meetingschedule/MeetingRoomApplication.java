@@ -2,12 +2,14 @@ package top.tangtian.meetingschedule;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author tangtian
  * @date 2025-11-16 10:26
  */
 @SpringBootApplication
+@EnableScheduling
 public class MeetingRoomApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,68 @@
+package top.tangtian.meetingschedule.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author tangtian
+ * @date 2025-12-09 14:20
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.booking")
+@Data
+public class BookingConfig {
+
+	// 临时保留时段的有效期（秒）
+	private int holdTtlSeconds = 300;
+
+	private Partition partition = new Partition();
+
+	private Reminder reminder = new Reminder();
+
+	private NoShow noShow = new NoShow();
+
+	/**
+	 * room_booking 分区维护
+	 */
+	@Data
+	public static class Partition {
+
+		// 预建未来分区的月数，需大于可提前预订的月数
+		private int monthsAhead = 25;
+
+		// 在线保留的历史月数，更早的分区会被分离归档，0 表示不归档
+		private int retentionMonths = 36;
+
+		// 归档分区迁移到的表空间（冷存储），为空则只移到 booking_archive 模式
+		private String archiveTablespace;
+	}
+
+	/**
+	 * 会前提醒
+	 */
+	@Data
+	public static class Reminder {
+
+		private boolean enabled = true;
+
+		// 开始前多少分钟提醒
+		private int minutesBefore = 10;
+	}
+
+	/**
+	 * 未签到自动释放
+	 */
+	@Data
+	public static class NoShow {
+
+		// 会议室有签到入口后再开启
+		private boolean enabled = false;
+
+		// 开始后多少分钟仍未签到则释放
+		private int graceMinutes = 15;
+
+		// 开始前多少分钟可以签到
+		private int checkInOpensMinutesBefore = 10;
+	}
+}
@@ -0,0 +1,24 @@
+package top.tangtian.meetingschedule.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 会议室目录缓存，缓存规格见 spring.cache.caffeine.spec
+ *
+ * @author tangtian
+ * @date 2025-12-18 09:40
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	// 会议室列表（全部 / 按楼宇 / 按容量）
+	public static final String MEETING_ROOMS = "meetingRooms";
+
+	// 按名称查会议室，预订时使用
+	public static final String MEETING_ROOM_BY_NAME = "meetingRoomByName";
+
+	// 按编码查楼宇
+	public static final String BUILDINGS = "buildings";
+}
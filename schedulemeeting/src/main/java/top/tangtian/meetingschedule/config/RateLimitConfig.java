@@ -23,4 +23,7 @@ public class RateLimitConfig {
 	// IP封禁配置
 	private int banThreshold = 50;
 	private int banDurationMinutes = 60;
+
+	// 管理接口令牌，为空时管理接口不可用
+	private String adminToken;
 }
\ No newline at end of file
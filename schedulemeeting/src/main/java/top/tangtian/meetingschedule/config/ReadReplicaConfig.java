@@ -0,0 +1,72 @@
+package top.tangtian.meetingschedule.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 读写分离，配置了 app.datasource.replica.jdbc-url 才启用，否则使用默认的单数据源
+ * <p>
+ * 主库沿用 spring.datasource 配置；副本连接池配置直接绑定 Hikari 属性（jdbc-url、username、maximum-pool-size 等）。
+ *
+ * @author tangtian
+ * @date 2025-12-19 10:20
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+@ConfigurationProperties(prefix = "app.datasource")
+@Data
+public class ReadReplicaConfig {
+
+	// 客户端写请求之后多少秒内，其读请求仍走主库
+	private int readYourWritesSeconds = 5;
+
+	/**
+	 * 主库连接池，Flyway 迁移直接使用主库
+	 */
+	@Bean
+	@FlywayDataSource
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties(prefix = "app.datasource.replica")
+	public HikariDataSource replicaDataSource() {
+		HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+		dataSource.setPoolName("replica");
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	/**
+	 * JPA、JdbcTemplate 使用的数据源
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+								 @Qualifier("replicaDataSource") DataSource replica) {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+		routing.setTargetDataSources(Map.of(
+				ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+				ReadWriteRoutingDataSource.Route.REPLICA, replica));
+		routing.setDefaultTargetDataSource(primary);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+}
@@ -0,0 +1,29 @@
+package top.tangtian.meetingschedule.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 只读事务路由到副本，其余（写事务、无事务、读己之写）走主库
+ * <p>
+ * 必须包在 LazyConnectionDataSourceProxy 里使用：事务开始时只读标记还没有设置，
+ * 延迟到第一次执行 SQL 时再决定取哪个库的连接。
+ *
+ * @author tangtian
+ * @date 2025-12-19 10:05
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	public enum Route {
+		PRIMARY,
+		REPLICA
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadYourWrites.isPinned()) {
+			return Route.REPLICA;
+		}
+		return Route.PRIMARY;
+	}
+}
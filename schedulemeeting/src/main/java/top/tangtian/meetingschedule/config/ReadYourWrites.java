@@ -0,0 +1,28 @@
+package top.tangtian.meetingschedule.config;
+
+/**
+ * 读己之写：当前请求刚写过数据（或来自刚写过数据的客户端）时，只读事务也走主库，
+ * 避免副本复制延迟导致看不到刚提交的预订
+ *
+ * @author tangtian
+ * @date 2025-12-19 10:10
+ */
+public final class ReadYourWrites {
+
+	private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+	private ReadYourWrites() {
+	}
+
+	public static void pin() {
+		PINNED.set(Boolean.TRUE);
+	}
+
+	public static boolean isPinned() {
+		return PINNED.get() != null;
+	}
+
+	public static void clear() {
+		PINNED.remove();
+	}
+}
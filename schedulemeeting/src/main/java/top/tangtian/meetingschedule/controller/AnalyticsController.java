@@ -0,0 +1,36 @@
+package top.tangtian.meetingschedule.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import top.tangtian.meetingschedule.dto.UtilisationGroupBy;
+import top.tangtian.meetingschedule.dto.UtilisationResponse;
+import top.tangtian.meetingschedule.service.RoomAnalyticsService;
+
+import java.time.LocalDate;
+
+/**
+ * 会议室使用率看板
+ *
+ * @author tangtian
+ * @date 2025-12-15 14:10
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+	private final RoomAnalyticsService analyticsService;
+
+	@GetMapping("/utilisation")
+	public UtilisationResponse utilisation(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) UtilisationGroupBy groupBy,
+			@RequestParam(required = false) String roomName) {
+		return analyticsService.utilisation(from, to, groupBy, roomName);
+	}
+}
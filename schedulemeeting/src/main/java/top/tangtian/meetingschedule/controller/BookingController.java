@@ -0,0 +1,139 @@
+package top.tangtian.meetingschedule.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import top.tangtian.meetingschedule.dto.AllocationRequest;
+import top.tangtian.meetingschedule.dto.AllocationResponse;
+import top.tangtian.meetingschedule.dto.BatchBookingRequest;
+import top.tangtian.meetingschedule.dto.BatchBookingResponse;
+import top.tangtian.meetingschedule.dto.BookingInfo;
+import top.tangtian.meetingschedule.dto.BookingPage;
+import top.tangtian.meetingschedule.dto.BookingResponse;
+import top.tangtian.meetingschedule.dto.BookingScope;
+import top.tangtian.meetingschedule.dto.BookingSearchResponse;
+import top.tangtian.meetingschedule.dto.HoldRequest;
+import top.tangtian.meetingschedule.dto.HoldResponse;
+import top.tangtian.meetingschedule.dto.OccurrenceMoveRequest;
+import top.tangtian.meetingschedule.dto.RecurringBookingRequest;
+import top.tangtian.meetingschedule.service.BatchBookingService;
+import top.tangtian.meetingschedule.service.BookingQueryService;
+import top.tangtian.meetingschedule.service.BookingSearchService;
+import top.tangtian.meetingschedule.service.BookingService;
+import top.tangtian.meetingschedule.service.RecurrenceService;
+import top.tangtian.meetingschedule.service.RoomAllocationSolver;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * @author tangtian
+ * @date 2025-12-04 11:02
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class BookingController {
+
+	private final BookingService bookingService;
+	private final BookingQueryService bookingQueryService;
+	private final BookingSearchService bookingSearchService;
+	private final BatchBookingService batchBookingService;
+	private final RecurrenceService recurrenceService;
+	private final RoomAllocationSolver allocationSolver;
+
+	@GetMapping("/mine")
+	public BookingPage listMyBookings(
+			@RequestParam String organizer,
+			@RequestParam(required = false) BookingScope scope,
+			@RequestParam(required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+			LocalDateTime from,
+			@RequestParam(required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+			LocalDateTime to,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size) {
+		return bookingQueryService.listBookings(organizer, scope, from, to, cursor, size);
+	}
+
+	@GetMapping("/search")
+	public BookingSearchResponse search(
+			@RequestParam String q,
+			@RequestParam(required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+			LocalDateTime from,
+			@RequestParam(required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+			LocalDateTime to,
+			@RequestParam(required = false) Integer page,
+			@RequestParam(required = false) Integer size) {
+		return bookingSearchService.search(q, from, to, page, size);
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<BookingInfo> getBooking(@PathVariable Long id) {
+		return ResponseEntity.of(bookingService.getBooking(id));
+	}
+
+	@PostMapping("/{id}/cancel")
+	public BookingResponse cancel(@PathVariable Long id, @RequestParam String organizer) {
+		return bookingService.cancelBooking(id, organizer);
+	}
+
+	@PostMapping("/{id}/check-in")
+	public BookingResponse checkIn(@PathVariable Long id) {
+		return bookingService.checkIn(id);
+	}
+
+	@PostMapping("/batch")
+	public BatchBookingResponse createBatch(@RequestBody BatchBookingRequest request) {
+		log.info("批量预订请求 - 模式: {}", request.getMode());
+		return batchBookingService.createBookings(request);
+	}
+
+	@PostMapping("/holds")
+	public HoldResponse hold(@RequestBody HoldRequest request) {
+		return bookingService.holdSlot(request);
+	}
+
+	@DeleteMapping("/holds/{holdId}")
+	public void releaseHold(@PathVariable String holdId) {
+		bookingService.releaseHold(holdId);
+	}
+
+	@PostMapping("/allocate")
+	public AllocationResponse allocate(@RequestBody AllocationRequest request) {
+		log.info("会议室分配请求 - 提交: {}", request.isCommit());
+		return allocationSolver.solve(request);
+	}
+
+	@PostMapping("/recurring")
+	public BookingResponse createRecurring(@RequestBody RecurringBookingRequest request) {
+		return recurrenceService.createRecurringBooking(request);
+	}
+
+	@DeleteMapping("/recurring/{id}")
+	public BookingResponse cancelRecurring(@PathVariable Long id) {
+		return recurrenceService.cancelSeries(id);
+	}
+
+	@PostMapping("/recurring/{id}/occurrences/{date}/cancel")
+	public BookingResponse cancelOccurrence(
+			@PathVariable Long id,
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		return recurrenceService.cancelOccurrence(id, date);
+	}
+
+	@PutMapping("/recurring/{id}/occurrences/{date}")
+	public BookingResponse moveOccurrence(
+			@PathVariable Long id,
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			@RequestBody OccurrenceMoveRequest request) {
+		return recurrenceService.moveOccurrence(id, date, request);
+	}
+}
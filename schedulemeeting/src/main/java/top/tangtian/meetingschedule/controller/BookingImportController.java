@@ -0,0 +1,49 @@
+package top.tangtian.meetingschedule.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import top.tangtian.meetingschedule.dto.BookingImportFormat;
+import top.tangtian.meetingschedule.dto.BookingImportReport;
+import top.tangtian.meetingschedule.entity.Building;
+import top.tangtian.meetingschedule.service.BookingImportService;
+import top.tangtian.meetingschedule.service.BuildingService;
+
+import java.io.InputStream;
+
+/**
+ * 历史预订导入，需要请求头 X-Admin-Token。请求体直接是 CSV/NDJSON 文件内容，边读边写入数据库
+ *
+ * @author tangtian
+ * @date 2025-12-20 11:00
+ */
+@RestController
+@RequestMapping("/api/admin/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class BookingImportController {
+
+	private final BookingImportService importService;
+	private final BuildingService buildingService;
+
+	@PostMapping("/import")
+	public ResponseEntity<BookingImportReport> importBookings(
+			InputStream body,
+			@RequestParam(defaultValue = "CSV") BookingImportFormat format,
+			@RequestParam(required = false) String building) {
+
+		Long buildingId = null;
+		if (building != null && !building.isBlank()) {
+			buildingId = buildingService.findByCode(building)
+					.map(Building::getId)
+					.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "楼宇不存在: " + building));
+		}
+
+		log.info("导入历史预订 - 格式: {}, 楼宇: {}", format, building);
+		BookingImportReport report = importService.importBookings(body, format, buildingId);
+		return report.isSuccess() ? ResponseEntity.ok(report) : ResponseEntity.badRequest().body(report);
+	}
+}
@@ -0,0 +1,95 @@
+package top.tangtian.meetingschedule.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import top.tangtian.meetingschedule.config.ReadYourWrites;
+import top.tangtian.meetingschedule.service.BuildingService;
+import top.tangtian.meetingschedule.service.CalendarFeedService;
+import top.tangtian.meetingschedule.service.CalendarFeedService.FeedScope;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 日历订阅（ICS），支持 ETag 条件请求和同步令牌增量拉取
+ *
+ * @author tangtian
+ * @date 2025-12-21 11:00
+ */
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", exposedHeaders = {"ETag", CalendarFeedController.SYNC_TOKEN_HEADER})
+public class CalendarFeedController {
+
+	static final String SYNC_TOKEN_HEADER = "X-Sync-Token";
+
+	private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+	private static final int MAX_PAST_DAYS = 365;
+
+	private final CalendarFeedService feedService;
+	private final BuildingService buildingService;
+
+	@GetMapping("/rooms/{roomId}.ics")
+	public ResponseEntity<StreamingResponseBody> roomFeed(
+			@PathVariable Long roomId,
+			@RequestParam(required = false) Long since,
+			@RequestParam(defaultValue = "30") int pastDays,
+			WebRequest request) {
+		FeedScope scope = feedService.roomScope(roomId)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "会议室不存在: " + roomId));
+		return feed(scope, since, pastDays, request);
+	}
+
+	@GetMapping("/buildings/{code}.ics")
+	public ResponseEntity<StreamingResponseBody> buildingFeed(
+			@PathVariable String code,
+			@RequestParam(required = false) Long since,
+			@RequestParam(defaultValue = "30") int pastDays,
+			WebRequest request) {
+		FeedScope scope = buildingService.findByCode(code)
+				.map(feedService::buildingScope)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "楼宇不存在: " + code));
+		return feed(scope, since, pastDays, request);
+	}
+
+	private ResponseEntity<StreamingResponseBody> feed(FeedScope scope, Long since, int pastDays, WebRequest request) {
+		LocalDateTime from = LocalDate.now().minusDays(Math.min(Math.max(pastDays, 0), MAX_PAST_DAYS)).atStartOfDay();
+
+		// 未变化时只执行两条聚合查询，返回 304
+		String etag = feedService.etag(scope, from, since);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+
+		// 令牌在读取数据前获取，读取期间提交的变更下次还会返回
+		long token = feedService.currentSyncToken();
+		log.info("日历订阅 - {}, since: {}, token: {}", scope.key(), since, token);
+
+		return ResponseEntity.ok()
+				.contentType(TEXT_CALENDAR)
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.header(SYNC_TOKEN_HEADER, String.valueOf(token))
+				.body(out -> {
+					// 令牌和 ETag 都在主库读取，正文也必须读主库：副本落后时会漏掉令牌之前提交的变更，
+					// 旧内容还会以新的 ETag 被客户端缓存
+					ReadYourWrites.pin();
+					try {
+						feedService.writeFeed(scope, from, since, out);
+					} finally {
+						ReadYourWrites.clear();
+					}
+				});
+	}
+}
@@ -0,0 +1,60 @@
+package top.tangtian.meetingschedule.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import top.tangtian.meetingschedule.service.RoomUsageRollupService;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 使用率汇总表维护，需要请求头 X-Admin-Token
+ *
+ * @author tangtian
+ * @date 2025-12-27 14:00
+ */
+@RestController
+@RequestMapping("/api/admin/rollups")
+@RequiredArgsConstructor
+@Slf4j
+public class RollupAdminController {
+
+	// 单次最多重建的月数，更长的范围分多次调用
+	private static final int MAX_REBUILD_MONTHS = 36;
+
+	private final RoomUsageRollupService rollupService;
+
+	/**
+	 * 重建汇总表，首次上线或数据修复后调用
+	 */
+	@PostMapping("/rebuild")
+	public ResponseEntity<?> rebuild(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		if (to.isBefore(from)) {
+			return ResponseEntity.badRequest().body(Map.of(
+					"success", false,
+					"message", "结束日期不能早于开始日期"
+			));
+		}
+		if (!to.isBefore(from.plusMonths(MAX_REBUILD_MONTHS))) {
+			return ResponseEntity.badRequest().body(Map.of(
+					"success", false,
+					"message", String.format("单次最多重建%d个月", MAX_REBUILD_MONTHS)
+			));
+		}
+
+		log.info("重建使用率汇总 - {} ~ {}", from, to);
+		long started = System.currentTimeMillis();
+		long days = rollupService.backfill(from, to);
+		return ResponseEntity.ok(Map.of(
+				"success", true,
+				"message", "汇总重建完成",
+				"days", days,
+				"elapsedMillis", System.currentTimeMillis() - started
+		));
+	}
+}
@@ -0,0 +1,36 @@
+package top.tangtian.meetingschedule.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import top.tangtian.meetingschedule.dto.RoomAdminRequest;
+import top.tangtian.meetingschedule.dto.RoomAdminResponse;
+import top.tangtian.meetingschedule.service.RoomAdminService;
+
+/**
+ * 会议室目录管理，需要请求头 X-Admin-Token
+ *
+ * @author tangtian
+ * @date 2025-12-18 10:50
+ */
+@RestController
+@RequestMapping("/api/admin/rooms")
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAdminController {
+
+	private final RoomAdminService roomAdminService;
+
+	@PostMapping
+	public ResponseEntity<RoomAdminResponse> createRoom(@RequestBody RoomAdminRequest request) {
+		RoomAdminResponse response = roomAdminService.createRoom(request);
+		return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+	}
+
+	@PutMapping("/{id}")
+	public ResponseEntity<RoomAdminResponse> updateRoom(@PathVariable Long id, @RequestBody RoomAdminRequest request) {
+		RoomAdminResponse response = roomAdminService.updateRoom(id, request);
+		return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+	}
+}
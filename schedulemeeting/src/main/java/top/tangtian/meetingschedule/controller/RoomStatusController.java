@@ -1,13 +1,34 @@
 package top.tangtian.meetingschedule.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import top.tangtian.meetingschedule.dto.FreeSlotQuery;
+import top.tangtian.meetingschedule.dto.RoomFreeSlotsResponse;
 import top.tangtian.meetingschedule.dto.RoomStatusResponse;
+import top.tangtian.meetingschedule.entity.Building;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.service.BuildingService;
+import top.tangtian.meetingschedule.service.RoomAvailabilityService;
+import top.tangtian.meetingschedule.service.RoomStatusBroadcaster;
+import top.tangtian.meetingschedule.service.RoomStatusRangeService;
 import top.tangtian.meetingschedule.service.RoomStatusService;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -18,22 +39,154 @@ import java.util.List;
 @RequestMapping("/api/rooms")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "ETag")
 public class RoomStatusController {
 
 	private final RoomStatusService roomStatusService;
+	private final RoomStatusBroadcaster roomStatusBroadcaster;
+	private final RoomStatusRangeService roomStatusRangeService;
+	private final RoomAvailabilityService roomAvailabilityService;
+	private final BuildingService buildingService;
 
+	/**
+	 * 会议室状态，带快照版本号 ETag；If-None-Match 命中时直接返回 304，不查询也不序列化
+	 */
 	@GetMapping("/status")
-	public List<RoomStatusResponse> getRoomStatus(
+	public ResponseEntity<List<RoomStatusResponse>> getRoomStatus(
 			@RequestParam(required = false)
 			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-			LocalDate date) {
+			LocalDate date,
+			@RequestParam(required = false) String building,
+			@RequestParam(required = false) Integer minCapacity,
+			@RequestParam(required = false) List<String> facilities,
+			WebRequest request) {
 
 		if (date == null) {
 			date = LocalDate.now();
 		}
+		Long buildingId = resolveBuilding(building);
 
-		log.info("获取会议室状态 - 日期: {}", date);
-		return roomStatusService.getRoomStatusForDate(date);
+		String etag = roomStatusService.etag(date, buildingId);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+
+		log.info("获取会议室状态 - 日期: {}, 楼宇: {}", date, building);
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.body(roomStatusService.getRoomStatusForDate(date, buildingId, minCapacity, facilities));
+	}
+
+	/**
+	 * 会议室状态推送，先推送完整状态，之后只推送变化的会议室；不指定日期时跟随当天
+	 */
+	@GetMapping(value = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public void streamRoomStatus(
+			@RequestParam(required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+			LocalDate date,
+			@RequestParam(required = false) String building,
+			@RequestParam(required = false) Integer minCapacity,
+			@RequestParam(required = false) List<String> facilities,
+			HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+
+		// 连接由推送服务以异步请求持有，处理方法返回后不会结束响应
+		if (!roomStatusBroadcaster.subscribe(request, response, date, resolveBuilding(building), minCapacity, facilities)) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "推送连接已满，请稍后重试");
+		}
+	}
+
+	/**
+	 * 多日会议室状态，按 会议室 -> 日期 流式输出，可按会议室名称或楼宇筛选
+	 */
+	@GetMapping("/status/range")
+	public ResponseEntity<StreamingResponseBody> getRoomStatusRange(
+			@RequestParam
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+			LocalDate from,
+			@RequestParam
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+			LocalDate to,
+			@RequestParam(required = false) String room,
+			@RequestParam(required = false) String building) {
+
+		if (to.isBefore(from)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "结束日期不能早于开始日期");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= RoomStatusRangeService.MAX_DAYS) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					String.format("最多查询%d天", RoomStatusRangeService.MAX_DAYS));
+		}
+
+		List<MeetingRoom> rooms = roomStatusRangeService.rooms(room, resolveBuilding(building))
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "会议室不存在: " + room));
+
+		log.info("获取多日会议室状态 - {} 至 {}, 会议室: {}, 楼宇: {}", from, to, room, building);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(out -> roomStatusRangeService.writeRange(rooms, from, to, out));
+	}
+
+	@GetMapping("/free-slots")
+	public List<RoomFreeSlotsResponse> getFreeSlots(
+			@RequestParam
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+			LocalDateTime start,
+			@RequestParam
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+			LocalDateTime end,
+			@RequestParam(required = false) String building,
+			@RequestParam(required = false) Integer minCapacity,
+			@RequestParam(defaultValue = "30") int minMinutes,
+			@RequestParam(defaultValue = "09:00")
+			@DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+			LocalTime workStart,
+			@RequestParam(defaultValue = "18:00")
+			@DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+			LocalTime workEnd) {
+
+		if (!start.isBefore(end)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "开始时间必须早于结束时间");
+		}
+		if (start.plusDays(RoomAvailabilityService.MAX_DAYS).isBefore(end)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					String.format("最多查询%d天", RoomAvailabilityService.MAX_DAYS));
+		}
+		if (!workStart.isBefore(workEnd)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "工作开始时间必须早于结束时间");
+		}
+		if (minMinutes < 0) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "最短分钟数不能小于0");
+		}
+
+		log.info("查询空闲时段 - {} 至 {}", start, end);
+		return roomAvailabilityService.findFreeSlots(FreeSlotQuery.builder()
+				.startTime(start)
+				.endTime(end)
+				.buildingId(resolveBuilding(building))
+				.minCapacity(minCapacity)
+				.minMinutes(minMinutes)
+				.workStart(workStart)
+				.workEnd(workEnd)
+				.build());
+	}
+
+	@GetMapping("/buildings")
+	public List<Building> getBuildings() {
+		return buildingService.listBuildings();
+	}
+
+	/**
+	 * 楼宇编码转换为ID，未指定时返回 null 表示不限楼宇
+	 */
+	private Long resolveBuilding(String code) {
+		if (code == null || code.isBlank()) {
+			return null;
+		}
+		return buildingService.findByCode(code)
+				.map(Building::getId)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "楼宇不存在: " + code));
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-08 09:32
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationRequest {
+	private List<MeetingDemand> meetings;
+
+	// 楼宇编码，为空表示不限楼宇
+	private String building;
+
+	// 求解时间预算（毫秒），超时未处理的会议返回未分配
+	@Builder.Default
+	private long timeBudgetMillis = 2000;
+
+	// 是否直接提交预订
+	private boolean commit;
+
+	@Builder.Default
+	private BatchMode mode = BatchMode.BEST_EFFORT;
+}
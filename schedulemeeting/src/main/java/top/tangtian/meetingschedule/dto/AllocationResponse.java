@@ -0,0 +1,29 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-08 09:35
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationResponse {
+	private int requested;
+	private int assigned;
+	private boolean timedOut;
+	private long elapsedMillis;
+
+	// 与请求顺序一一对应
+	private List<MeetingAssignment> assignments;
+
+	// commit 为 true 时的提交结果
+	private BatchBookingResponse booking;
+}
@@ -0,0 +1,23 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-04 10:05
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingRequest {
+	@Builder.Default
+	private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+
+	private List<BookingRequest> bookings;
+}
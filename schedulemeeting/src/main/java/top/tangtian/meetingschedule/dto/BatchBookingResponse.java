@@ -0,0 +1,28 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-04 10:06
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingResponse {
+	private boolean success;
+	private String message;
+	private BatchMode mode;
+	private int requested;
+	private int booked;
+	private long elapsedMillis;
+
+	// 与请求顺序一一对应
+	private List<BookingResponse> results;
+}
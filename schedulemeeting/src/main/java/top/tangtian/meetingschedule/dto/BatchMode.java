@@ -0,0 +1,12 @@
+package top.tangtian.meetingschedule.dto;
+
+/**
+ * @author tangtian
+ * @date 2025-12-04 10:05
+ */
+public enum BatchMode {
+	// 任意一条失败则整批不提交
+	ALL_OR_NOTHING,
+	// 提交所有校验通过的预订，失败项单独返回原因
+	BEST_EFFORT
+}
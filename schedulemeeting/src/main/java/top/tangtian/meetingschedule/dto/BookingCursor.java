@@ -0,0 +1,34 @@
+package top.tangtian.meetingschedule.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标，记录上一页最后一条预订的 (startTime, id)
+ * 对外是不透明的字符串，客户端原样回传即可
+ *
+ * @author tangtian
+ * @date 2025-12-13 09:35
+ */
+public record BookingCursor(LocalDateTime startTime, Long id) {
+
+	public String encode() {
+		String raw = startTime + "," + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 解析游标，格式不正确时抛出 IllegalArgumentException
+	 */
+	public static BookingCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int comma = raw.indexOf(',');
+			return new BookingCursor(LocalDateTime.parse(raw.substring(0, comma)),
+					Long.parseLong(raw.substring(comma + 1)));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("无效的分页游标: " + cursor, e);
+		}
+	}
+}
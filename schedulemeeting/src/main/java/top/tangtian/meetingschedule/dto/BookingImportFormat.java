@@ -0,0 +1,12 @@
+package top.tangtian.meetingschedule.dto;
+
+/**
+ * @author tangtian
+ * @date 2025-12-20 09:10
+ */
+public enum BookingImportFormat {
+	// 首行为表头：room_name,title,organizer,start_time,end_time,attendees,description,status
+	CSV,
+	// 每行一个 JSON 对象，字段同 BookingImportRow
+	NDJSON
+}
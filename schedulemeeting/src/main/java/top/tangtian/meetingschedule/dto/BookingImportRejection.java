@@ -0,0 +1,7 @@
+package top.tangtian.meetingschedule.dto;
+
+/**
+ * @author tangtian
+ * @date 2025-12-20 09:14
+ */
+public record BookingImportRejection(long line, String reason) {}
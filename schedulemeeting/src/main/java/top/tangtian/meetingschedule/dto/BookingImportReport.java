@@ -0,0 +1,28 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-20 09:15
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingImportReport {
+	private boolean success;
+	private String message;
+	private long totalRows;
+	private long imported;
+	private long rejected;
+	private long elapsedMillis;
+
+	// 只返回前若干条被拒绝的行，总数见 rejected
+	private List<BookingImportRejection> rejections;
+}
@@ -0,0 +1,18 @@
+package top.tangtian.meetingschedule.dto;
+
+/**
+ * 导入文件中的一条预订，时间为 yyyy-MM-dd HH:mm:ss 或 ISO 格式，status 为空表示 CONFIRMED
+ *
+ * @author tangtian
+ * @date 2025-12-20 09:12
+ */
+public record BookingImportRow(
+		String roomName,
+		String title,
+		String organizer,
+		String startTime,
+		String endTime,
+		Integer attendees,
+		String description,
+		String status
+) {}
@@ -0,0 +1,26 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 预订分页结果，hasMore 为 true 时用 nextCursor 请求下一页
+ *
+ * @author tangtian
+ * @date 2025-12-13 09:40
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPage {
+	private boolean success;
+	private String message;
+	private List<BookingInfo> bookings;
+	private String nextCursor;
+	private boolean hasMore;
+}
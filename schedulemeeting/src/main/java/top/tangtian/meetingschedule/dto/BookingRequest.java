@@ -29,4 +29,7 @@ public class BookingRequest {
 
 	private Integer attendees;
 	private String description;
+
+	// 预订前保留时段得到的ID，可选
+	private String holdId;
 }
\ No newline at end of file
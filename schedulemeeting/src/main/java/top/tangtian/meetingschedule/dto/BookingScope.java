@@ -0,0 +1,16 @@
+package top.tangtian.meetingschedule.dto;
+
+/**
+ * "我的预订" 查询范围
+ *
+ * @author tangtian
+ * @date 2025-12-13 09:30
+ */
+public enum BookingScope {
+	// 未结束的预订，按开始时间升序
+	UPCOMING,
+	// 已结束的预订，按开始时间倒序
+	PAST,
+	// 不区分是否结束，按开始时间升序，通常配合时间窗口使用
+	ALL
+}
@@ -0,0 +1,35 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 预订搜索结果，原生查询的接口投影
+ *
+ * @author tangtian
+ * @date 2025-12-14 10:20
+ */
+public interface BookingSearchHit {
+
+	Long getId();
+
+	String getRoomName();
+
+	String getTitle();
+
+	String getOrganizer();
+
+	String getDescription();
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	LocalDateTime getStartTime();
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	LocalDateTime getEndTime();
+
+	String getStatus();
+
+	// 与关键词的相似度，0~1，越大越相关
+	Double getScore();
+}
@@ -0,0 +1,24 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-14 10:25
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSearchResponse {
+	private boolean success;
+	private String message;
+	private int page;
+	private boolean hasMore;
+	private List<BookingSearchHit> hits;
+}
@@ -0,0 +1,27 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author tangtian
+ * @date 2025-12-02 14:10
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlot {
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime startTime;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime endTime;
+
+	private long minutes;
+}
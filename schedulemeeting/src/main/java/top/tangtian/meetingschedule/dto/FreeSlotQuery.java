@@ -0,0 +1,39 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * @author tangtian
+ * @date 2025-12-02 14:10
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotQuery {
+	private LocalDateTime startTime;
+	private LocalDateTime endTime;
+
+	// 楼宇ID，为空表示不限楼宇
+	private Long buildingId;
+
+	// 最少容纳人数，为空表示不限制
+	private Integer minCapacity;
+
+	// 空闲时段最短分钟数
+	@Builder.Default
+	private int minMinutes = 30;
+
+	// 工作时间范围
+	@Builder.Default
+	private LocalTime workStart = LocalTime.of(9, 0);
+
+	@Builder.Default
+	private LocalTime workEnd = LocalTime.of(18, 0);
+}
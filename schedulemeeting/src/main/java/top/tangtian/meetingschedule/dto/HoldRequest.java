@@ -0,0 +1,30 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author tangtian
+ * @date 2025-12-09 14:26
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldRequest {
+	private String roomName;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime startTime;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime endTime;
+
+	// 保留人，通常为组织者或会话ID
+	private String holder;
+}
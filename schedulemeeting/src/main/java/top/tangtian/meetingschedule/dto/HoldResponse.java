@@ -0,0 +1,20 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author tangtian
+ * @date 2025-12-09 14:26
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponse {
+	private boolean success;
+	private String message;
+	private SlotHold hold;
+}
@@ -0,0 +1,33 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author tangtian
+ * @date 2025-12-08 09:34
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingAssignment {
+	// 对应请求中的下标
+	private int index;
+	private String title;
+	private boolean assigned;
+	private String message;
+	private String roomName;
+	private Integer roomCapacity;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime startTime;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime endTime;
+}
@@ -0,0 +1,38 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 待分配的会议需求：只给出允许的时间窗口和时长，由求解器决定会议室和具体时间
+ *
+ * @author tangtian
+ * @date 2025-12-08 09:30
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingDemand {
+	private String title;
+	private String organizer;
+	private String description;
+	private Integer attendees;
+
+	// 必需的设施，如 ["投影仪", "视频会议"]
+	private List<String> requiredFacilities;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime windowStart;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime windowEnd;
+
+	private int durationMinutes;
+}
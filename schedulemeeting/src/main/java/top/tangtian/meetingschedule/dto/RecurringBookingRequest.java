@@ -0,0 +1,49 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.tangtian.meetingschedule.entity.RecurrenceFrequency;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-05 10:08
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBookingRequest {
+	private String roomName;
+	private String title;
+	private String organizer;
+	private Integer attendees;
+	private String description;
+
+	private RecurrenceFrequency frequency;
+
+	@Builder.Default
+	private Integer interval = 1;
+
+	// WEEKLY 时必填，如 ["TUESDAY"]
+	private List<DayOfWeek> daysOfWeek;
+
+	@JsonFormat(pattern = "yyyy-MM-dd")
+	private LocalDate startDate;
+
+	@JsonFormat(pattern = "yyyy-MM-dd")
+	private LocalDate untilDate;
+
+	@JsonFormat(pattern = "HH:mm")
+	private LocalTime startTime;
+
+	@JsonFormat(pattern = "HH:mm")
+	private LocalTime endTime;
+}
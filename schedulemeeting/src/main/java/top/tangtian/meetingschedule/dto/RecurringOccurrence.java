@@ -0,0 +1,25 @@
+package top.tangtian.meetingschedule.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 周期预订展开后的单次发生
+ *
+ * @author tangtian
+ * @date 2025-12-05 10:05
+ */
+public record RecurringOccurrence(
+		Long recurringBookingId,
+		Long roomId,
+		LocalDate occurrenceDate,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		String title,
+		String organizer
+) {
+
+	public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+		return startTime.isBefore(end) && endTime.isAfter(start);
+	}
+}
@@ -0,0 +1,26 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author tangtian
+ * @date 2025-12-18 10:10
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomAdminRequest {
+	private String name;
+	private Integer capacity;
+	private String location;
+
+	// 设施，逗号或顿号分隔，如 "投影仪、白板"
+	private String facilities;
+
+	// 楼宇编码，为空时使用默认楼宇
+	private String building;
+}
@@ -0,0 +1,21 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+
+/**
+ * @author tangtian
+ * @date 2025-12-18 10:10
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomAdminResponse {
+	private boolean success;
+	private String message;
+	private MeetingRoom room;
+}
@@ -0,0 +1,24 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-02 14:12
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomFreeSlotsResponse {
+	private String name;
+	private Integer capacity;
+	private String location;
+	private String facilities;
+	private List<FreeSlot> freeSlots;
+}
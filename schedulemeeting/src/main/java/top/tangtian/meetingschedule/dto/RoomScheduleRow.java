@@ -0,0 +1,18 @@
+package top.tangtian.meetingschedule.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会议室状态页使用的预订投影，只包含展示需要的列
+ *
+ * @author tangtian
+ * @date 2025-12-12 10:15
+ */
+public record RoomScheduleRow(
+		Long roomId,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		String title,
+		String organizer
+) {
+}
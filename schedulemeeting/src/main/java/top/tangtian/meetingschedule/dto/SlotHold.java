@@ -0,0 +1,33 @@
+package top.tangtian.meetingschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会议室时段的临时保留
+ *
+ * @author tangtian
+ * @date 2025-12-09 14:25
+ */
+public record SlotHold(
+		String holdId,
+		Long roomId,
+		String roomName,
+		@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+		LocalDateTime startTime,
+		@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+		LocalDateTime endTime,
+		String holder,
+		@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+		LocalDateTime expiresAt
+) {
+
+	public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+		return startTime.isBefore(end) && endTime.isAfter(start);
+	}
+
+	public boolean covers(LocalDateTime start, LocalDateTime end) {
+		return !start.isBefore(startTime) && !end.isAfter(endTime);
+	}
+}
@@ -0,0 +1,18 @@
+package top.tangtian.meetingschedule.dto;
+
+/**
+ * 使用率统计维度
+ *
+ * @author tangtian
+ * @date 2025-12-15 11:00
+ */
+public enum UtilisationGroupBy {
+	// 按会议室
+	ROOM,
+	// 按楼层，楼层从会议室位置中解析
+	FLOOR,
+	// 按一天中的小时（0-23）
+	HOUR,
+	// 按星期（1=周一 ... 7=周日）
+	WEEKDAY
+}
@@ -0,0 +1,26 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-15 11:08
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilisationResponse {
+	private boolean success;
+	private String message;
+	private UtilisationGroupBy groupBy;
+	private LocalDate from;
+	private LocalDate to;
+	private List<UtilisationStat> stats;
+}
@@ -0,0 +1,28 @@
+package top.tangtian.meetingschedule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个统计项的使用率
+ *
+ * @author tangtian
+ * @date 2025-12-15 11:05
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilisationStat {
+	// 会议室名称 / 楼层 / 小时 / 星期
+	private String key;
+	private long bookedMinutes;
+	// 同期工作时间内的可用分钟数
+	private long availableMinutes;
+	// bookedMinutes / availableMinutes
+	private double utilisation;
+	// 按开始日期计数，HOUR 维度不统计
+	private Long bookingCount;
+}
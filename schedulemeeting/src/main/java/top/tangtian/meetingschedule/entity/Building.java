@@ -0,0 +1,43 @@
+package top.tangtian.meetingschedule.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 楼宇，会议室和预订按楼宇隔离
+ *
+ * @author tangtian
+ * @date 2025-12-17 09:30
+ */
+@Entity
+@Table(name = "building")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Building {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// 对外使用的楼宇编码，如 HQ
+	@Column(nullable = false, unique = true)
+	private String code;
+
+	@Column(nullable = false)
+	private String name;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+
+	@PrePersist
+	protected void onCreate() {
+		createdAt = LocalDateTime.now();
+	}
+}
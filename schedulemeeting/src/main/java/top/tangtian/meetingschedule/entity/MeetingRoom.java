@@ -34,6 +34,11 @@ public class MeetingRoom {
 
 	private String facilities;
 
+	// 所属楼宇，默认楼宇为1
+	@Column(name = "building_id", nullable = false)
+	@Builder.Default
+	private Long buildingId = 1L;
+
 	@Column(name = "created_at")
 	private LocalDateTime createdAt;
 
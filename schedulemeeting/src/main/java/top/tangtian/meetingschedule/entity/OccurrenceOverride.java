@@ -0,0 +1,39 @@
+package top.tangtian.meetingschedule.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 周期预订中单次发生的例外：取消或改期
+ *
+ * @author tangtian
+ * @date 2025-12-05 09:42
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccurrenceOverride {
+
+	// 按规则原本发生的日期
+	@Column(name = "occurrence_date", nullable = false)
+	private LocalDate occurrenceDate;
+
+	@Column(nullable = false)
+	private boolean cancelled;
+
+	// 改期后的时间，取消时为空
+	@Column(name = "new_start_time")
+	private LocalDateTime newStartTime;
+
+	@Column(name = "new_end_time")
+	private LocalDateTime newEndTime;
+}
@@ -0,0 +1,10 @@
+package top.tangtian.meetingschedule.entity;
+
+/**
+ * @author tangtian
+ * @date 2025-12-05 09:40
+ */
+public enum RecurrenceFrequency {
+	DAILY,
+	WEEKLY
+}
@@ -0,0 +1,96 @@
+package top.tangtian.meetingschedule.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 周期预订，一条记录代表整个系列，具体发生按查询窗口展开
+ *
+ * @author tangtian
+ * @date 2025-12-05 09:45
+ */
+@Entity
+@Table(name = "recurring_booking")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBooking {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "room_id", nullable = false)
+	private MeetingRoom room;
+
+	@Column(nullable = false)
+	private String title;
+
+	@Column(nullable = false)
+	private String organizer;
+
+	private Integer attendees;
+
+	private String description;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 10)
+	private RecurrenceFrequency frequency;
+
+	// 每隔几天/几周发生一次
+	@Column(name = "interval_count", nullable = false)
+	@Builder.Default
+	private Integer interval = 1;
+
+	// 每周重复的星期，如 TUESDAY,THURSDAY，仅 WEEKLY 使用
+	@Column(name = "by_day", length = 100)
+	private String byDay;
+
+	@Column(name = "start_date", nullable = false)
+	private LocalDate startDate;
+
+	@Column(name = "until_date", nullable = false)
+	private LocalDate untilDate;
+
+	@Column(name = "start_time", nullable = false)
+	private LocalTime startTime;
+
+	@Column(name = "end_time", nullable = false)
+	private LocalTime endTime;
+
+	@Column(length = 20)
+	@Builder.Default
+	private String status = "ACTIVE";
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "recurring_booking_override",
+			joinColumns = @JoinColumn(name = "recurring_booking_id"))
+	@Builder.Default
+	private List<OccurrenceOverride> overrides = new ArrayList<>();
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+
+	// 最后一次写入的事务ID，由数据库维护，用于日历增量同步
+	@Column(name = "change_xid", insertable = false, updatable = false)
+	private Long changeXid;
+
+	@PrePersist
+	protected void onCreate() {
+		createdAt = LocalDateTime.now();
+		if (status == null) {
+			status = "ACTIVE";
+		}
+	}
+}
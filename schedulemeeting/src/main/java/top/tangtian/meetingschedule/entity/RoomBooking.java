@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -20,14 +21,23 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class RoomBooking {
 
+	// 单个预订的最长时长，room_booking 按月分区，跨分区的重叠检查和查询裁剪都依赖这个上限
+	public static final Duration MAX_DURATION = Duration.ofHours(24);
+
+	// 序列 + pooled 分配，每次取号分配50个ID，批量插入时 Hibernate 才能合并语句
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_booking_seq")
+	@SequenceGenerator(name = "room_booking_seq", sequenceName = "room_booking_id_seq", allocationSize = 50)
 	private Long id;
 
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "room_id", nullable = false)
 	private MeetingRoom room;
 
+	// 冗余会议室的楼宇，按楼宇查询时不需要关联会议室表
+	@Column(name = "building_id", nullable = false)
+	private Long buildingId;
+
 	@Column(nullable = false)
 	private String title;
 
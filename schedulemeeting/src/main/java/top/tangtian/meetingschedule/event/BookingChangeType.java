@@ -0,0 +1,12 @@
+package top.tangtian.meetingschedule.event;
+
+/**
+ * @author tangtian
+ * @date 2025-12-01 09:20
+ */
+public enum BookingChangeType {
+	CREATED,
+	CANCELLED,
+	// 未签到自动释放，与取消一样让出会议室
+	RELEASED
+}
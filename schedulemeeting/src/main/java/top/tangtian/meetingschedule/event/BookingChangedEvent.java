@@ -0,0 +1,25 @@
+package top.tangtian.meetingschedule.event;
+
+import top.tangtian.meetingschedule.entity.RoomBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * 预订变更事件，在预订写入的事务中发布，监听方按需在提交后处理
+ *
+ * @author tangtian
+ * @date 2025-12-01 09:20
+ */
+public record BookingChangedEvent(
+		Long bookingId,
+		Long roomId,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		BookingChangeType type
+) {
+
+	public static BookingChangedEvent of(RoomBooking booking, BookingChangeType type) {
+		return new BookingChangedEvent(booking.getId(), booking.getRoom().getId(),
+				booking.getStartTime(), booking.getEndTime(), type);
+	}
+}
@@ -0,0 +1,18 @@
+package top.tangtian.meetingschedule.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会前提醒，多实例部署时每个预订只会由一个实例发布一次。通知渠道（邮件、IM 等）监听此事件发送
+ *
+ * @author tangtian
+ * @date 2025-12-22 09:30
+ */
+public record BookingReminderEvent(
+		Long bookingId,
+		Long roomId,
+		String title,
+		String organizer,
+		LocalDateTime startTime,
+		LocalDateTime endTime
+) {}
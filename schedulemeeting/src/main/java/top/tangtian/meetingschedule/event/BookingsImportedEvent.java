@@ -0,0 +1,11 @@
+package top.tangtian.meetingschedule.event;
+
+import java.time.LocalDate;
+
+/**
+ * 批量导入预订事件，导入绕过了逐条的预订变更事件，只给出受影响的日期范围
+ *
+ * @author tangtian
+ * @date 2025-12-26 10:05
+ */
+public record BookingsImportedEvent(LocalDate fromDate, LocalDate toDate) {}
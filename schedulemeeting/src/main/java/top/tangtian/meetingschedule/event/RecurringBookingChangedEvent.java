@@ -0,0 +1,16 @@
+package top.tangtian.meetingschedule.event;
+
+import java.time.LocalDate;
+
+/**
+ * 周期预订变更事件，日期范围为受影响的发生日期
+ *
+ * @author tangtian
+ * @date 2025-12-05 10:12
+ */
+public record RecurringBookingChangedEvent(
+		Long recurringBookingId,
+		Long roomId,
+		LocalDate fromDate,
+		LocalDate toDate
+) {}
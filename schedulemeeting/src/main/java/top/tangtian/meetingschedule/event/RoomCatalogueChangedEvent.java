@@ -0,0 +1,9 @@
+package top.tangtian.meetingschedule.event;
+
+/**
+ * 会议室目录变更事件，提交后清空目录缓存并重建筛选索引
+ *
+ * @author tangtian
+ * @date 2025-12-18 10:05
+ */
+public record RoomCatalogueChangedEvent(Long roomId) {}
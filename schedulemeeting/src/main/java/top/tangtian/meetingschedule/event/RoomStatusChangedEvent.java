@@ -0,0 +1,24 @@
+package top.tangtian.meetingschedule.event;
+
+import java.time.LocalDate;
+
+/**
+ * 会议室状态快照已更新，roomId 为空表示日期范围内的全部会议室，日期为空表示不限
+ *
+ * @author tangtian
+ * @date 2025-12-24 10:05
+ */
+public record RoomStatusChangedEvent(
+		Long roomId,
+		LocalDate fromDate,
+		LocalDate toDate
+) {
+
+	public static RoomStatusChangedEvent all() {
+		return new RoomStatusChangedEvent(null, null, null);
+	}
+
+	public boolean affects(LocalDate date) {
+		return (fromDate == null || !date.isBefore(fromDate)) && (toDate == null || !date.isAfter(toDate));
+	}
+}
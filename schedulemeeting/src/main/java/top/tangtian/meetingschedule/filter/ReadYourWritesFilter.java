@@ -0,0 +1,82 @@
+package top.tangtian.meetingschedule.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import top.tangtian.meetingschedule.config.ReadReplicaConfig;
+import top.tangtian.meetingschedule.config.ReadYourWrites;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 读己之写：写请求时下发短期 Cookie，Cookie 有效期内该客户端的读请求走主库
+ * <p>
+ * 大厅屏幕、只看状态的页面不写数据，始终读副本；刚预订或取消的用户在几秒内读主库，能立即看到自己的变更。
+ *
+ * @author tangtian
+ * @date 2025-12-19 10:40
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	static final String COOKIE_NAME = "rw_pin";
+
+	private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+	private final ReadReplicaConfig config;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request,
+									HttpServletResponse response,
+									FilterChain filterChain) throws ServletException, IOException {
+
+		long now = System.currentTimeMillis();
+		boolean write = !READ_METHODS.contains(request.getMethod());
+
+		if (write) {
+			// 响应体写出后无法再加 Cookie，写请求一开始就下发
+			int seconds = config.getReadYourWritesSeconds();
+			Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + seconds * 1000L));
+			cookie.setPath("/");
+			cookie.setMaxAge(seconds);
+			cookie.setHttpOnly(true);
+			response.addCookie(cookie);
+		}
+
+		if (write || pinnedUntil(request) > now) {
+			ReadYourWrites.pin();
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReadYourWrites.clear();
+		}
+	}
+
+	private static long pinnedUntil(HttpServletRequest request) {
+		if (request.getCookies() == null) {
+			return 0;
+		}
+		for (Cookie cookie : request.getCookies()) {
+			if (COOKIE_NAME.equals(cookie.getName())) {
+				try {
+					return Long.parseLong(cookie.getValue());
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 0;
+	}
+}
@@ -13,8 +13,11 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import top.tangtian.meetingschedule.config.IpRateLimiter;
+import top.tangtian.meetingschedule.config.RateLimitConfig;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +33,7 @@ import java.util.Set;
 public class SecurityFilter extends OncePerRequestFilter {
 
 	private final IpRateLimiter ipRateLimiter;
+	private final RateLimitConfig config;
 	private final ObjectMapper objectMapper = new ObjectMapper();
 
 	// 可疑的User-Agent模式（常见爬虫）
@@ -51,6 +55,9 @@ public class SecurityFilter extends OncePerRequestFilter {
 			"/api/chat"
 	);
 
+	// 管理接口前缀，需要令牌
+	private static final String ADMIN_PATH_PREFIX = "/api/admin/";
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request,
 									HttpServletResponse response,
@@ -87,9 +94,25 @@ public class SecurityFilter extends OncePerRequestFilter {
 			}
 		}
 
+		// 4. 管理接口校验令牌
+		if (path.startsWith(ADMIN_PATH_PREFIX) && !isAdmin(request)) {
+			log.warn("管理接口令牌无效 - IP: {}, Path: {}", clientIp, path);
+			sendErrorResponse(response, HttpStatus.FORBIDDEN, "Access denied");
+			return;
+		}
+
 		filterChain.doFilter(request, response);
 	}
 
+	private boolean isAdmin(HttpServletRequest request) {
+		String expected = config.getAdminToken();
+		String actual = request.getHeader("X-Admin-Token");
+		if (expected == null || expected.isEmpty() || actual == null) {
+			return false;
+		}
+		return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+	}
+
 	private boolean isSuspiciousUserAgent(String userAgent) {
 		if (userAgent == null || userAgent.isEmpty()) {
 			return true; // 没有User-Agent的请求视为可疑
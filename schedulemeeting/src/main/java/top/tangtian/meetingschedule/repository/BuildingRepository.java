@@ -0,0 +1,19 @@
+package top.tangtian.meetingschedule.repository;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import top.tangtian.meetingschedule.config.CacheConfig;
+import top.tangtian.meetingschedule.entity.Building;
+
+import java.util.Optional;
+
+/**
+ * @author tangtian
+ * @date 2025-12-17 09:35
+ */
+@Repository
+public interface BuildingRepository extends JpaRepository<Building, Long> {
+	@Cacheable(cacheNames = CacheConfig.BUILDINGS, key = "#p0")
+	Optional<Building> findByCode(String code);
+}
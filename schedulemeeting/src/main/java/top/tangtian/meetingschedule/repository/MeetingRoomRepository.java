@@ -1,22 +1,43 @@
 package top.tangtian.meetingschedule.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import top.tangtian.meetingschedule.config.CacheConfig;
 import top.tangtian.meetingschedule.entity.MeetingRoom;
 
 import java.util.List;
 import java.util.Optional;
 
 /**
+ * 会议室目录查询走缓存，目录只由 {@link top.tangtian.meetingschedule.service.RoomAdminService} 修改，
+ * 修改提交后整体失效。缓存中的实体是脱管对象，调用方不要修改返回的实体和列表
+ *
  * @author tangtian
  * @date 2025-11-16 10:37
  */
 @Repository
 public interface MeetingRoomRepository extends JpaRepository<MeetingRoom, Long> {
+	@Cacheable(cacheNames = CacheConfig.MEETING_ROOM_BY_NAME, key = "#p0")
 	Optional<MeetingRoom> findByName(String name);
 
+	@Override
+	@Cacheable(cacheNames = CacheConfig.MEETING_ROOMS, key = "'all'")
+	List<MeetingRoom> findAll();
+
+	@Cacheable(cacheNames = CacheConfig.MEETING_ROOMS, key = "'capacity:' + #p0")
 	@Query("SELECT r FROM MeetingRoom r WHERE r.capacity >= :capacity")
 	List<MeetingRoom> findByCapacityGreaterThanEqual(@Param("capacity") Integer capacity);
+
+	@Cacheable(cacheNames = CacheConfig.MEETING_ROOMS, key = "'building:' + #p0")
+	List<MeetingRoom> findByBuildingId(Long buildingId);
+
+	@Cacheable(cacheNames = CacheConfig.MEETING_ROOMS, key = "'building:' + #p0 + ':capacity:' + #p1")
+	@Query("SELECT r FROM MeetingRoom r WHERE r.buildingId = :buildingId AND r.capacity >= :capacity")
+	List<MeetingRoom> findByBuildingIdAndCapacityGreaterThanEqual(
+			@Param("buildingId") Long buildingId,
+			@Param("capacity") Integer capacity
+	);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package top.tangtian.meetingschedule.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import top.tangtian.meetingschedule.entity.RecurringBooking;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author tangtian
+ * @date 2025-12-05 09:50
+ */
+@Repository
+public interface RecurringBookingRepository extends JpaRepository<RecurringBooking, Long> {
+
+	@Query("SELECT DISTINCT r FROM RecurringBooking r LEFT JOIN FETCH r.overrides " +
+			"WHERE r.status = 'ACTIVE' AND r.untilDate >= :from")
+	List<RecurringBooking> findActiveUntilAfter(@Param("from") LocalDate from);
+
+	@Query("SELECT DISTINCT r FROM RecurringBooking r LEFT JOIN FETCH r.overrides " +
+			"WHERE r.room.id = :roomId AND r.status = 'ACTIVE' AND r.untilDate >= :from")
+	List<RecurringBooking> findActiveUntilAfterForRoom(
+			@Param("roomId") Long roomId,
+			@Param("from") LocalDate from
+	);
+
+	@Query("SELECT DISTINCT r FROM RecurringBooking r LEFT JOIN FETCH r.overrides " +
+			"WHERE r.room.id IN :roomIds AND r.status = 'ACTIVE' AND r.untilDate >= :from")
+	List<RecurringBooking> findActiveForRooms(
+			@Param("roomIds") Collection<Long> roomIds,
+			@Param("from") LocalDate from
+	);
+
+	/**
+	 * 同步令牌之后变更过的系列，包括已取消的
+	 */
+	@Query("SELECT DISTINCT r FROM RecurringBooking r LEFT JOIN FETCH r.overrides " +
+			"WHERE r.room.id IN :roomIds AND r.changeXid >= :since AND r.untilDate >= :from")
+	List<RecurringBooking> findChangedForRooms(
+			@Param("roomIds") Collection<Long> roomIds,
+			@Param("since") Long since,
+			@Param("from") LocalDate from
+	);
+}
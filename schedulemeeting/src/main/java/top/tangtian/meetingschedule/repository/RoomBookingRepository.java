@@ -1,13 +1,19 @@
 package top.tangtian.meetingschedule.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import top.tangtian.meetingschedule.dto.BookingInfo;
+import top.tangtian.meetingschedule.dto.BookingSearchHit;
+import top.tangtian.meetingschedule.dto.RoomScheduleRow;
 import top.tangtian.meetingschedule.entity.RoomBooking;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author tangtian
@@ -16,11 +22,21 @@ import java.util.List;
 @Repository
 public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long> {
 
+	/**
+	 * room_booking 按 start_time 按月分区。重叠查询只带 end 条件时无法裁剪历史分区，
+	 * 预订最长 {@link RoomBooking#MAX_DURATION}，因此补上 startTime 下界，只扫描相邻的分区
+	 */
+	default List<RoomBooking> findConflictingBookings(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+		return findConflictingBookings(roomId, startTime.minus(RoomBooking.MAX_DURATION), startTime, endTime);
+	}
+
 	@Query("SELECT b FROM RoomBooking b WHERE b.room.id = :roomId " +
 			"AND b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :earliestStart " +
 			"AND b.startTime < :endTime AND b.endTime > :startTime")
 	List<RoomBooking> findConflictingBookings(
 			@Param("roomId") Long roomId,
+			@Param("earliestStart") LocalDateTime earliestStart,
 			@Param("startTime") LocalDateTime startTime,
 			@Param("endTime") LocalDateTime endTime
 	);
@@ -29,10 +45,202 @@ public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long>
 			"ORDER BY b.startTime DESC")
 	List<RoomBooking> findByOrganizer(@Param("organizer") String organizer);
 
+	// startTime <= :end 由 endTime <= :end 推出，显式写出以便裁剪未来分区
 	@Query("SELECT b FROM RoomBooking b WHERE b.startTime >= :start " +
-			"AND b.endTime <= :end ORDER BY b.startTime")
+			"AND b.startTime <= :end AND b.endTime <= :end ORDER BY b.startTime")
 	List<RoomBooking> findBookingsBetween(
 			@Param("start") LocalDateTime start,
 			@Param("end") LocalDateTime end
 	);
+
+	// 以下投影查询直接构造 DTO，不加载实体、不做脏检查，也不占用持久化上下文
+
+	@Query("SELECT new top.tangtian.meetingschedule.dto.BookingInfo(b.id, r.name, b.title, b.organizer, " +
+			"b.startTime, b.endTime, b.attendees, b.description, b.status) " +
+			"FROM RoomBooking b JOIN b.room r WHERE b.id = :id")
+	Optional<BookingInfo> findBookingInfoById(@Param("id") Long id);
+
+	/**
+	 * 签到，checked_in_at 未映射到实体，避免实体更新覆盖签到时间；带 startTime 只访问一个分区
+	 */
+	@Modifying
+	@Query(value = "UPDATE room_booking SET checked_in_at = :checkedInAt " +
+			"WHERE id = :id AND start_time = :startTime AND status = 'CONFIRMED' AND checked_in_at IS NULL",
+			nativeQuery = true)
+	int markCheckedIn(
+			@Param("id") Long id,
+			@Param("startTime") LocalDateTime startTime,
+			@Param("checkedInAt") LocalDateTime checkedInAt
+	);
+
+	/**
+	 * 取消，只在仍为 CONFIRMED、组织者一致且尚未结束时更新；与未签到释放、并发取消互斥，
+	 * 返回 0 时不应发布变更事件，否则汇总表会重复扣减。带 startTime 只访问一个分区
+	 */
+	@Modifying
+	@Query(value = "UPDATE room_booking SET status = 'CANCELLED' " +
+			"WHERE id = :id AND start_time = :startTime AND status = 'CONFIRMED' " +
+			"AND organizer = :organizer AND end_time > :now",
+			nativeQuery = true)
+	int markCancelled(
+			@Param("id") Long id,
+			@Param("startTime") LocalDateTime startTime,
+			@Param("organizer") String organizer,
+			@Param("now") LocalDateTime now
+	);
+
+	// 与 findBookingsBetween 的时间条件一致，只取 CONFIRMED 预订
+	@Query("SELECT new top.tangtian.meetingschedule.dto.RoomScheduleRow(b.room.id, b.startTime, b.endTime, " +
+			"b.title, b.organizer) " +
+			"FROM RoomBooking b WHERE b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :start AND b.startTime <= :end AND b.endTime <= :end " +
+			"ORDER BY b.startTime")
+	List<RoomScheduleRow> findScheduleRowsBetween(
+			@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end
+	);
+
+	/**
+	 * 单个会议室的状态行，条件与 {@link #findScheduleRowsBetween} 一致，用于状态快照的增量更新
+	 */
+	@Query("SELECT new top.tangtian.meetingschedule.dto.RoomScheduleRow(b.room.id, b.startTime, b.endTime, " +
+			"b.title, b.organizer) " +
+			"FROM RoomBooking b WHERE b.room.id = :roomId AND b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :start AND b.startTime <= :end AND b.endTime <= :end " +
+			"ORDER BY b.startTime")
+	List<RoomScheduleRow> findScheduleRowsForRoomBetween(
+			@Param("roomId") Long roomId,
+			@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end
+	);
+
+	/**
+	 * 组织者的预订，按 (startTime, id) 升序键集分页：只返回排在 (afterStart, afterId) 之后的记录
+	 * startTime >= :afterStart 可以作为索引条件，OR 部分只在同一开始时间内区分 id
+	 */
+	@Query("SELECT new top.tangtian.meetingschedule.dto.BookingInfo(b.id, r.name, b.title, b.organizer, " +
+			"b.startTime, b.endTime, b.attendees, b.description, b.status) " +
+			"FROM RoomBooking b JOIN b.room r WHERE b.organizer = :organizer " +
+			"AND b.endTime > :endAfter " +
+			"AND b.startTime >= :afterStart AND (b.startTime > :afterStart OR b.id > :afterId) " +
+			"AND b.startTime < :startBefore " +
+			"ORDER BY b.startTime, b.id")
+	List<BookingInfo> findOrganizerPageAsc(
+			@Param("organizer") String organizer,
+			@Param("endAfter") LocalDateTime endAfter,
+			@Param("afterStart") LocalDateTime afterStart,
+			@Param("afterId") Long afterId,
+			@Param("startBefore") LocalDateTime startBefore,
+			Limit limit
+	);
+
+	/**
+	 * 组织者的预订，按 (startTime, id) 倒序键集分页：只返回排在 (beforeStart, beforeId) 之前的记录
+	 */
+	@Query("SELECT new top.tangtian.meetingschedule.dto.BookingInfo(b.id, r.name, b.title, b.organizer, " +
+			"b.startTime, b.endTime, b.attendees, b.description, b.status) " +
+			"FROM RoomBooking b JOIN b.room r WHERE b.organizer = :organizer " +
+			"AND b.endTime <= :endNotAfter " +
+			"AND b.startTime <= :beforeStart AND (b.startTime < :beforeStart OR b.id < :beforeId) " +
+			"AND b.startTime >= :startFrom " +
+			"ORDER BY b.startTime DESC, b.id DESC")
+	List<BookingInfo> findOrganizerPageDesc(
+			@Param("organizer") String organizer,
+			@Param("endNotAfter") LocalDateTime endNotAfter,
+			@Param("beforeStart") LocalDateTime beforeStart,
+			@Param("beforeId") Long beforeId,
+			@Param("startFrom") LocalDateTime startFrom,
+			Limit limit
+	);
+
+	/**
+	 * 按关键词搜索标题、组织者和描述，先按开始时间窗口过滤再按相似度排序
+	 * 包含关键词的直接命中（ILIKE），否则按三元组词相似度（<%）模糊匹配，两者都能使用 idx_room_booking_search_trgm
+	 */
+	@Query(value = "SELECT b.id AS id, r.name AS roomName, b.title AS title, b.organizer AS organizer, " +
+			"b.description AS description, b.start_time AS startTime, b.end_time AS endTime, b.status AS status, " +
+			"word_similarity(:keyword, b.title || ' ' || b.organizer || ' ' || coalesce(b.description, '')) AS score " +
+			"FROM room_booking b JOIN meeting_room r ON r.id = b.room_id " +
+			"WHERE b.start_time >= :from AND b.start_time < :to " +
+			"AND ((b.title || ' ' || b.organizer || ' ' || coalesce(b.description, '')) ILIKE :pattern " +
+			"OR :keyword <% (b.title || ' ' || b.organizer || ' ' || coalesce(b.description, ''))) " +
+			"ORDER BY score DESC, b.start_time, b.id " +
+			"LIMIT :limit OFFSET :offset",
+			nativeQuery = true)
+	List<BookingSearchHit> searchBookings(
+			@Param("keyword") String keyword,
+			@Param("pattern") String pattern,
+			@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to,
+			@Param("limit") int limit,
+			@Param("offset") int offset
+	);
+
+	// 按楼宇隔离的查询，使用 idx_room_booking_building_time，不会读取其他楼宇的预订
+
+	@Query("SELECT new top.tangtian.meetingschedule.dto.RoomScheduleRow(b.room.id, b.startTime, b.endTime, " +
+			"b.title, b.organizer) " +
+			"FROM RoomBooking b WHERE b.buildingId = :buildingId AND b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :start AND b.startTime <= :end AND b.endTime <= :end " +
+			"ORDER BY b.startTime")
+	List<RoomScheduleRow> findScheduleRowsBetweenInBuilding(
+			@Param("buildingId") Long buildingId,
+			@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end
+	);
+
+	default List<RoomBooking> findConfirmedOverlappingInBuilding(Long buildingId, LocalDateTime start,
+																 LocalDateTime end) {
+		return findConfirmedOverlappingInBuilding(buildingId, start.minus(RoomBooking.MAX_DURATION), start, end);
+	}
+
+	@Query("SELECT b FROM RoomBooking b WHERE b.buildingId = :buildingId " +
+			"AND b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :earliestStart " +
+			"AND b.startTime < :end AND b.endTime > :start ORDER BY b.startTime")
+	List<RoomBooking> findConfirmedOverlappingInBuilding(
+			@Param("buildingId") Long buildingId,
+			@Param("earliestStart") LocalDateTime earliestStart,
+			@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end
+	);
+
+	default List<RoomBooking> findConfirmedOverlapping(LocalDateTime start, LocalDateTime end) {
+		return findConfirmedOverlapping(start.minus(RoomBooking.MAX_DURATION), start, end);
+	}
+
+	@Query("SELECT b FROM RoomBooking b WHERE b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :earliestStart " +
+			"AND b.startTime < :end AND b.endTime > :start ORDER BY b.startTime")
+	List<RoomBooking> findConfirmedOverlapping(
+			@Param("earliestStart") LocalDateTime earliestStart,
+			@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end
+	);
+
+	default List<RoomBooking> findConfirmedOverlappingInRoom(Long roomId, LocalDateTime start, LocalDateTime end) {
+		return findConfirmedOverlappingInRoom(roomId, start.minus(RoomBooking.MAX_DURATION), start, end);
+	}
+
+	@Query("SELECT b FROM RoomBooking b WHERE b.room.id = :roomId " +
+			"AND b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :earliestStart " +
+			"AND b.startTime < :end AND b.endTime > :start ORDER BY b.startTime")
+	List<RoomBooking> findConfirmedOverlappingInRoom(
+			@Param("roomId") Long roomId,
+			@Param("earliestStart") LocalDateTime earliestStart,
+			@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end
+	);
+
+	default List<RoomBooking> findConfirmedEndingAfter(LocalDateTime since) {
+		return findConfirmedEndingAfter(since.minus(RoomBooking.MAX_DURATION), since);
+	}
+
+	@Query("SELECT b FROM RoomBooking b WHERE b.status = 'CONFIRMED' " +
+			"AND b.startTime >= :earliestStart AND b.endTime > :since")
+	List<RoomBooking> findConfirmedEndingAfter(
+			@Param("earliestStart") LocalDateTime earliestStart,
+			@Param("since") LocalDateTime since
+	);
 }
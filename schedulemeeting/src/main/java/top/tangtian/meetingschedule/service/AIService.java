@@ -47,7 +47,7 @@ public class AIService {
 
 			// 创建ChatClient并调用
 			ChatClient chatClient = chatClientBuilder
-					.defaultFunctions("bookMeetingRoom")
+					.defaultFunctions("bookMeetingRoom", "holdMeetingRoom", "listMyBookings", "searchBookings", "findRooms")
 					.build();
 
 			String response = chatClient.prompt(new Prompt(messages))
@@ -130,8 +130,12 @@ public class AIService {
             你的任务:
             1. 理解用户的预订需求
             2. 如果信息不完整，简洁地询问缺失信息
-            3. 当获得所有必要信息后，调用bookMeetingRoom工具完成预订
-            4. 将相对时间转换为具体时间（如"明天下午2点"）
+            3. 用户已确定会议室和时间但还缺少其他信息时，先调用holdMeetingRoom保留该时段，再询问缺失信息
+            4. 当获得所有必要信息后，调用bookMeetingRoom工具完成预订，之前保留过时段的要带上holdId
+            5. 将相对时间转换为具体时间（如"明天下午2点"）
+            6. 用户询问自己订过哪些会议室时，调用listMyBookings查询，有nextCursor且用户需要更多时再查下一页
+            7. 用户按会议名称或关键词找某个会议时，调用searchBookings搜索，并把相对时间转换为时间范围
+            8. 用户按设施或人数挑选会议室时，调用findRooms查找，优先推荐容量最接近的会议室
             
             必需信息: 会议室名称、会议主题、组织者姓名、开始时间、结束时间
             可选信息: 参会人数、会议描述
@@ -0,0 +1,244 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.tangtian.meetingschedule.dto.BatchBookingRequest;
+import top.tangtian.meetingschedule.dto.BatchBookingResponse;
+import top.tangtian.meetingschedule.dto.BatchMode;
+import top.tangtian.meetingschedule.dto.BookingRequest;
+import top.tangtian.meetingschedule.dto.BookingResponse;
+import top.tangtian.meetingschedule.dto.SlotHold;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 批量预订
+ * <p>
+ * 先在内存中完成全部校验（时间、容量、批内冲突、与库中已有预订的冲突），
+ * 再在一个事务内 saveAll，借助序列 pooled 分配和 JDBC 批处理减少数据库往返。
+ *
+ * @author tangtian
+ * @date 2025-12-04 10:20
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchBookingService {
+
+	private static final int MAX_BATCH_SIZE = 1000;
+
+	private final MeetingRoomRepository roomRepository;
+	private final RoomBookingRepository bookingRepository;
+	private final BookingService bookingService;
+	private final RecurrenceService recurrenceService;
+	private final SlotHoldRegistry slotHolds;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+
+	public BatchBookingResponse createBookings(BatchBookingRequest request) {
+		long started = System.currentTimeMillis();
+		List<BookingRequest> items = request.getBookings() == null ? List.of() : request.getBookings();
+		BatchMode mode = request.getMode() == null ? BatchMode.ALL_OR_NOTHING : request.getMode();
+		log.info("批量预订 - 模式: {}, 数量: {}", mode, items.size());
+
+		if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+			return BatchBookingResponse.builder()
+					.success(false)
+					.message(String.format("单次批量预订数量需在1到%d之间", MAX_BATCH_SIZE))
+					.mode(mode)
+					.requested(items.size())
+					.results(List.of())
+					.build();
+		}
+
+		BookingResponse[] results = new BookingResponse[items.size()];
+		Map<Integer, RoomBooking> candidates = validate(items, results);
+		rejectConflicts(items, candidates, results);
+
+		if (mode == BatchMode.ALL_OR_NOTHING && candidates.size() < items.size()) {
+			candidates.keySet().forEach(i -> results[i] = failure("批量预订中存在失败项，整批未提交"));
+			candidates.clear();
+		}
+
+		if (!candidates.isEmpty()) {
+			saveCandidates(items, candidates, results, mode);
+		}
+
+		long booked = Arrays.stream(results).filter(BookingResponse::isSuccess).count();
+		long elapsed = System.currentTimeMillis() - started;
+		log.info("批量预订完成 - 成功: {}/{}, 耗时: {}ms", booked, items.size(), elapsed);
+
+		return BatchBookingResponse.builder()
+				.success(booked == items.size())
+				.message(String.format("成功预订%d/%d", booked, items.size()))
+				.mode(mode)
+				.requested(items.size())
+				.booked((int) booked)
+				.elapsedMillis(elapsed)
+				.results(Arrays.asList(results))
+				.build();
+	}
+
+	/**
+	 * 逐条校验时间、会议室和容量，返回通过校验的候选预订（按请求下标）
+	 */
+	private Map<Integer, RoomBooking> validate(List<BookingRequest> items, BookingResponse[] results) {
+		Map<String, MeetingRoom> rooms = roomRepository.findAll().stream()
+				.collect(Collectors.toMap(MeetingRoom::getName, Function.identity()));
+
+		Map<Integer, RoomBooking> candidates = new LinkedHashMap<>();
+		for (int i = 0; i < items.size(); i++) {
+			BookingRequest item = items.get(i);
+			MeetingRoom room = rooms.get(item.getRoomName());
+
+			String error = BookingService.validateTime(item);
+			if (error == null && room == null) {
+				error = "会议室不存在: " + item.getRoomName();
+			}
+			if (error == null) {
+				error = BookingService.validateCapacity(item, room);
+			}
+
+			if (error != null) {
+				results[i] = failure(error);
+			} else {
+				candidates.put(i, BookingService.toEntity(item, room));
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * 剔除与库中已有预订、周期预订、他人保留冲突，以及与本批次中靠前的预订冲突的候选项
+	 */
+	private void rejectConflicts(List<BookingRequest> items, Map<Integer, RoomBooking> candidates,
+								 BookingResponse[] results) {
+		if (candidates.isEmpty()) {
+			return;
+		}
+
+		LocalDateTime windowStart = candidates.values().stream()
+				.map(RoomBooking::getStartTime).min(LocalDateTime::compareTo).orElseThrow();
+		LocalDateTime windowEnd = candidates.values().stream()
+				.map(RoomBooking::getEndTime).max(LocalDateTime::compareTo).orElseThrow();
+
+		// 一次查询取出整个批次时间窗口内的已有预订
+		Map<Long, List<RoomBooking>> existingByRoom = bookingRepository
+				.findConfirmedOverlapping(windowStart, windowEnd)
+				.stream()
+				.collect(Collectors.groupingBy(booking -> booking.getRoom().getId()));
+
+		// 会议室ID -> 本批次已接受的预订（开始时间 -> 结束时间）
+		Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> accepted = new HashMap<>();
+
+		Iterator<Map.Entry<Integer, RoomBooking>> it = candidates.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Integer, RoomBooking> entry = it.next();
+			RoomBooking booking = entry.getValue();
+			Long roomId = booking.getRoom().getId();
+
+			boolean existingConflict = existingByRoom.getOrDefault(roomId, List.of()).stream()
+					.anyMatch(existing -> overlaps(existing, booking))
+					|| recurrenceService.hasConflict(roomId, booking.getStartTime(), booking.getEndTime())
+					|| slotHolds.conflicts(roomId, booking.getStartTime(), booking.getEndTime(),
+							ownHoldId(items.get(entry.getKey()), booking));
+			if (existingConflict) {
+				results[entry.getKey()] = failure("该时间段已被预订");
+				it.remove();
+				continue;
+			}
+
+			NavigableMap<LocalDateTime, LocalDateTime> roomAccepted =
+					accepted.computeIfAbsent(roomId, k -> new TreeMap<>());
+			Map.Entry<LocalDateTime, LocalDateTime> previous = roomAccepted.lowerEntry(booking.getEndTime());
+			if (previous != null && previous.getValue().isAfter(booking.getStartTime())) {
+				results[entry.getKey()] = failure("与本批次中的其他预订时间冲突");
+				it.remove();
+				continue;
+			}
+			roomAccepted.put(booking.getStartTime(), booking.getEndTime());
+		}
+	}
+
+	/**
+	 * 请求带来的保留，与会议室、时段或组织者不符时返回 null，不能用来绕过或释放他人的保留
+	 */
+	private String ownHoldId(BookingRequest item, RoomBooking booking) {
+		return slotHolds.matching(item.getHoldId(), booking.getRoom().getId(), booking.getStartTime(),
+				booking.getEndTime(), booking.getOrganizer()).map(SlotHold::holdId).orElse(null);
+	}
+
+	private void saveCandidates(List<BookingRequest> items, Map<Integer, RoomBooking> candidates,
+								BookingResponse[] results, BatchMode mode) {
+		List<Integer> indexes = new ArrayList<>(candidates.keySet());
+		try {
+			List<RoomBooking> saved = persistAll(new ArrayList<>(candidates.values()));
+			for (int k = 0; k < saved.size(); k++) {
+				RoomBooking booking = saved.get(k);
+				slotHolds.release(ownHoldId(items.get(indexes.get(k)), booking));
+				results[indexes.get(k)] = BookingResponse.builder()
+						.success(true)
+						.message("预订成功")
+						.bookingId(booking.getId())
+						.bookingInfo(BookingService.convertToInfo(booking))
+						.build();
+			}
+		} catch (DataIntegrityViolationException e) {
+			if (!BookingConstraints.isOverlapViolation(e)) {
+				throw e;
+			}
+
+			// 校验之后被并发写入抢占了部分时间段
+			log.info("批量预订提交时与并发预订冲突 - 模式: {}", mode);
+			if (mode == BatchMode.ALL_OR_NOTHING) {
+				indexes.forEach(i -> results[i] = failure("该时间段已被预订，整批未提交"));
+			} else {
+				indexes.forEach(i -> results[i] = bookingService.createBooking(items.get(i)));
+			}
+		}
+	}
+
+	private List<RoomBooking> persistAll(List<RoomBooking> bookings) {
+		return transactionTemplate.execute(status -> {
+			// 与周期预订的写入串行，按库中已提交的系列复查，冲突时按重叠处理
+			recurrenceService.checkPersistedConflicts(bookings);
+			List<RoomBooking> saved = bookingRepository.saveAll(bookings);
+			bookingRepository.flush();
+			saved.forEach(booking ->
+					eventPublisher.publishEvent(BookingChangedEvent.of(booking, BookingChangeType.CREATED)));
+			return saved;
+		});
+	}
+
+	private boolean overlaps(RoomBooking a, RoomBooking b) {
+		return a.getStartTime().isBefore(b.getEndTime()) && a.getEndTime().isAfter(b.getStartTime());
+	}
+
+	private BookingResponse failure(String message) {
+		return BookingResponse.builder()
+				.success(false)
+				.message(message)
+				.build();
+	}
+}
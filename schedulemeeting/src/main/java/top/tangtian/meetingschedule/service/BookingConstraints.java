@@ -0,0 +1,33 @@
+package top.tangtian.meetingschedule.service;
+
+import java.sql.SQLException;
+
+/**
+ * 数据库约束冲突识别
+ *
+ * @author tangtian
+ * @date 2025-12-03 16:05
+ */
+final class BookingConstraints {
+
+	// PostgreSQL exclusion_violation，对应 room_booking_no_overlap 约束
+	private static final String EXCLUSION_VIOLATION = "23P01";
+
+	private BookingConstraints() {
+	}
+
+	/**
+	 * 异常是否由会议室时间段重叠约束引起
+	 */
+	static boolean isOverlapViolation(Throwable e) {
+		Throwable cause = e;
+		while (cause != null) {
+			if (cause instanceof SQLException sqlException
+					&& EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+				return true;
+			}
+			cause = cause.getCause();
+		}
+		return false;
+	}
+}
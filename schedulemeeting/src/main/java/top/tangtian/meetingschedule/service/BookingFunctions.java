@@ -8,11 +8,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
+import top.tangtian.meetingschedule.dto.BookingPage;
 import top.tangtian.meetingschedule.dto.BookingRequest;
 import top.tangtian.meetingschedule.dto.BookingResponse;
+import top.tangtian.meetingschedule.dto.BookingScope;
+import top.tangtian.meetingschedule.dto.BookingSearchResponse;
+import top.tangtian.meetingschedule.dto.HoldRequest;
+import top.tangtian.meetingschedule.dto.HoldResponse;
+import top.tangtian.meetingschedule.dto.SlotHold;
+import top.tangtian.meetingschedule.entity.Building;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -25,6 +35,10 @@ import java.util.function.Function;
 public class BookingFunctions {
 
 	private final BookingService bookingService;
+	private final BookingQueryService bookingQueryService;
+	private final BookingSearchService bookingSearchService;
+	private final RoomFilterIndex roomFilterIndex;
+	private final BuildingService buildingService;
 	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
 	@Bean
@@ -45,6 +59,7 @@ public class BookingFunctions {
 						.endTime(endTime)
 						.attendees(request.attendees())
 						.description(request.description())
+						.holdId(request.holdId())
 						.build();
 
 				BookingResponse response = bookingService.createBooking(bookingRequest);
@@ -62,6 +77,139 @@ public class BookingFunctions {
 		};
 	}
 
+	@Bean
+	@Description("临时保留会议室时段。用户已确定会议室和时间、但还缺少主题或组织者等信息时调用，保留期内其他人无法预订该时段")
+	public Function<HoldFunctionRequest, HoldFunctionResponse> holdMeetingRoom() {
+		return request -> {
+			log.info("AI调用保留功能: {}", request);
+
+			try {
+				HoldResponse response = bookingService.holdSlot(HoldRequest.builder()
+						.roomName(request.roomName())
+						.startTime(LocalDateTime.parse(request.startTime(), FORMATTER))
+						.endTime(LocalDateTime.parse(request.endTime(), FORMATTER))
+						.holder(request.holder())
+						.build());
+
+				SlotHold hold = response.getHold();
+				return new HoldFunctionResponse(
+						response.isSuccess(),
+						response.getMessage(),
+						hold == null ? null : hold.holdId(),
+						hold == null ? null : hold.expiresAt().format(FORMATTER)
+				);
+
+			} catch (Exception e) {
+				log.error("保留失败", e);
+				return new HoldFunctionResponse(false, "保留失败: " + e.getMessage(), null, null);
+			}
+		};
+	}
+
+	@Bean
+	@Description("查询某个组织者的预订，可按范围和时间窗口过滤，结果分页返回。回答\"我这周订了哪些会议室\"之类的问题时调用")
+	public Function<MyBookingsFunctionRequest, MyBookingsFunctionResponse> listMyBookings() {
+		return request -> {
+			log.info("AI调用查询预订功能: {}", request);
+
+			try {
+				BookingPage page = bookingQueryService.listBookings(
+						request.organizer(),
+						request.scope() == null ? null : BookingScope.valueOf(request.scope()),
+						request.from() == null ? null : LocalDateTime.parse(request.from(), FORMATTER),
+						request.to() == null ? null : LocalDateTime.parse(request.to(), FORMATTER),
+						request.cursor(),
+						request.size());
+
+				List<MyBookingItem> bookings = page.getBookings().stream()
+						.map(info -> new MyBookingItem(
+								info.getId(),
+								info.getRoomName(),
+								info.getTitle(),
+								info.getStartTime().format(FORMATTER),
+								info.getEndTime().format(FORMATTER),
+								info.getStatus()))
+						.toList();
+				return new MyBookingsFunctionResponse(page.isSuccess(), page.getMessage(), bookings,
+						page.getNextCursor());
+
+			} catch (Exception e) {
+				log.error("查询预订失败", e);
+				return new MyBookingsFunctionResponse(false, "查询预订失败: " + e.getMessage(), List.of(), null);
+			}
+		};
+	}
+
+	@Bean
+	@Description("按关键词搜索预订的会议主题、组织者和描述，可限定时间范围。用户只记得会议名称的一部分时调用，如\"下个月的季度评审会\"")
+	public Function<SearchFunctionRequest, SearchFunctionResponse> searchBookings() {
+		return request -> {
+			log.info("AI调用搜索功能: {}", request);
+
+			try {
+				BookingSearchResponse response = bookingSearchService.search(
+						request.keyword(),
+						request.from() == null ? null : LocalDateTime.parse(request.from(), FORMATTER),
+						request.to() == null ? null : LocalDateTime.parse(request.to(), FORMATTER),
+						request.page(),
+						null);
+
+				List<SearchItem> items = response.getHits().stream()
+						.map(hit -> new SearchItem(
+								hit.getId(),
+								hit.getRoomName(),
+								hit.getTitle(),
+								hit.getOrganizer(),
+								hit.getStartTime().format(FORMATTER),
+								hit.getEndTime().format(FORMATTER),
+								hit.getStatus()))
+						.toList();
+				return new SearchFunctionResponse(response.isSuccess(), response.getMessage(), items,
+						response.isHasMore());
+
+			} catch (Exception e) {
+				log.error("搜索预订失败", e);
+				return new SearchFunctionResponse(false, "搜索预订失败: " + e.getMessage(), List.of(), false);
+			}
+		};
+	}
+
+	@Bean
+	@Description("按设施和容纳人数查找会议室，结果按容量从小到大排列。用户提出\"需要投影仪和视频会议、12个人\"之类的要求时调用")
+	public Function<FindRoomsFunctionRequest, FindRoomsFunctionResponse> findRooms() {
+		return request -> {
+			log.info("AI调用查找会议室功能: {}", request);
+
+			List<String> facilities = request.facilities() == null ? List.of() : request.facilities();
+			Set<String> known = roomFilterIndex.facilityNames();
+			List<String> unknown = facilities.stream()
+					.filter(facility -> !known.contains(facility.trim()))
+					.toList();
+			if (!unknown.isEmpty()) {
+				return new FindRoomsFunctionResponse(false,
+						"未知设施: " + String.join("、", unknown) + "，可选设施: " + String.join("、", known),
+						List.of());
+			}
+
+			Long buildingId = null;
+			if (request.building() != null && !request.building().isBlank()) {
+				Optional<Building> building = buildingService.findByCode(request.building());
+				if (building.isEmpty()) {
+					return new FindRoomsFunctionResponse(false, "楼宇不存在: " + request.building(), List.of());
+				}
+				buildingId = building.get().getId();
+			}
+
+			List<RoomItem> rooms = roomFilterIndex.find(buildingId, request.minCapacity(), facilities).stream()
+					.map(room -> new RoomItem(room.getName(), room.getCapacity(), room.getLocation(),
+							room.getFacilities()))
+					.toList();
+			return new FindRoomsFunctionResponse(true,
+					rooms.isEmpty() ? "没有满足条件的会议室" : String.format("找到%d间会议室", rooms.size()),
+					rooms);
+		};
+	}
+
 	@JsonClassDescription("预订会议室的请求参数")
 	public record BookingFunctionRequest(
 			@JsonProperty(required = true)
@@ -88,7 +236,131 @@ public class BookingFunctions {
 			Integer attendees,
 
 			@JsonPropertyDescription("会议描述或备注")
-			String description
+			String description,
+
+			@JsonPropertyDescription("之前调用holdMeetingRoom得到的保留ID，没有则不填")
+			String holdId
+	) {}
+
+	@JsonClassDescription("临时保留会议室时段的请求参数")
+	public record HoldFunctionRequest(
+			@JsonProperty(required = true)
+			@JsonPropertyDescription("会议室名称，如：会议室A、会议室B、会议室C、大会议厅")
+			String roomName,
+
+			@JsonProperty(required = true)
+			@JsonPropertyDescription("开始时间，格式: yyyy-MM-dd HH:mm:ss，例如: 2025-11-15 14:00:00")
+			String startTime,
+
+			@JsonProperty(required = true)
+			@JsonPropertyDescription("结束时间，格式: yyyy-MM-dd HH:mm:ss，例如: 2025-11-15 16:00:00")
+			String endTime,
+
+			@JsonPropertyDescription("保留人，已知时填写组织者姓名")
+			String holder
+	) {}
+
+	@JsonClassDescription("查询组织者预订的请求参数")
+	public record MyBookingsFunctionRequest(
+			@JsonProperty(required = true)
+			@JsonPropertyDescription("组织者姓名")
+			String organizer,
+
+			@JsonPropertyDescription("查询范围：UPCOMING 未结束的（默认），PAST 已结束的，ALL 全部（配合时间窗口使用）")
+			String scope,
+
+			@JsonPropertyDescription("开始时间下界，格式: yyyy-MM-dd HH:mm:ss，如查询本周则填本周一 00:00:00")
+			String from,
+
+			@JsonPropertyDescription("开始时间上界（不含），格式: yyyy-MM-dd HH:mm:ss")
+			String to,
+
+			@JsonPropertyDescription("上次结果返回的nextCursor，查询下一页时填写")
+			String cursor,
+
+			@JsonPropertyDescription("每页条数，默认20")
+			Integer size
+	) {}
+
+	public record MyBookingItem(
+			Long bookingId,
+			String roomName,
+			String title,
+			String startTime,
+			String endTime,
+			String status
+	) {}
+
+	public record MyBookingsFunctionResponse(
+			boolean success,
+			String message,
+			List<MyBookingItem> bookings,
+			String nextCursor
+	) {}
+
+	@JsonClassDescription("搜索预订的请求参数")
+	public record SearchFunctionRequest(
+			@JsonProperty(required = true)
+			@JsonPropertyDescription("关键词，如会议主题的一部分或组织者姓名，至少2个字")
+			String keyword,
+
+			@JsonPropertyDescription("会议开始时间下界，格式: yyyy-MM-dd HH:mm:ss，不填则为一年前")
+			String from,
+
+			@JsonPropertyDescription("会议开始时间上界（不含），格式: yyyy-MM-dd HH:mm:ss")
+			String to,
+
+			@JsonPropertyDescription("页码，从0开始，默认0")
+			Integer page
+	) {}
+
+	public record SearchItem(
+			Long bookingId,
+			String roomName,
+			String title,
+			String organizer,
+			String startTime,
+			String endTime,
+			String status
+	) {}
+
+	public record SearchFunctionResponse(
+			boolean success,
+			String message,
+			List<SearchItem> results,
+			boolean hasMore
+	) {}
+
+	@JsonClassDescription("查找会议室的请求参数")
+	public record FindRoomsFunctionRequest(
+			@JsonPropertyDescription("需要的设施列表，如：投影仪、白板、视频会议、音响系统、电话会议")
+			List<String> facilities,
+
+			@JsonPropertyDescription("最少容纳人数")
+			Integer minCapacity,
+
+			@JsonPropertyDescription("楼宇编码，如 HQ，用户指定了楼宇时填写")
+			String building
+	) {}
+
+	public record RoomItem(
+			String name,
+			Integer capacity,
+			String location,
+			String facilities
+	) {}
+
+	public record FindRoomsFunctionResponse(
+			boolean success,
+			String message,
+			List<RoomItem> rooms
+	) {}
+
+	public record HoldFunctionResponse(
+			boolean success,
+			String message,
+			String holdId,
+			String expiresAt
 	) {}
 
 	public record BookingFunctionResponse(
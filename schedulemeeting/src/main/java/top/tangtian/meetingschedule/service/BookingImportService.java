@@ -0,0 +1,461 @@
+package top.tangtian.meetingschedule.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.tangtian.meetingschedule.dto.BookingImportFormat;
+import top.tangtian.meetingschedule.dto.BookingImportRejection;
+import top.tangtian.meetingschedule.dto.BookingImportReport;
+import top.tangtian.meetingschedule.dto.BookingImportRow;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.BookingsImportedEvent;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+import top.tangtian.meetingschedule.util.CsvReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 历史预订批量导入
+ * <p>
+ * 输入边读边校验，通过的行直接经 COPY 写入临时表，内存只保留每个会议室最后的结束时间和前若干条拒绝原因。
+ * 文件内的重叠在读取时检查（要求按开始时间排序），与库中已有预订的重叠在临时表上用一条 SQL 剔除，
+ * 最后一次 INSERT ... SELECT 写入分区表。整个导入在一个事务内，失败不留下部分数据。
+ *
+ * @author tangtian
+ * @date 2025-12-20 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingImportService {
+
+	// 与 V3 的序列步长、RoomBooking 的 allocationSize 一致，每个 nextval 分得一段ID
+	private static final int ID_BLOCK = 50;
+
+	private static final int MAX_REPORTED_REJECTIONS = 1000;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final DateTimeFormatter INPUT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd[ ]['T']HH:mm[:ss]");
+	private static final DateTimeFormatter COPY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	// CSV 必须包含的列，attendees、description、status 可选
+	private static final List<String> REQUIRED_CSV_COLUMNS = List.of(
+			"room_name", "title", "organizer", "start_time", "end_time");
+
+	private static final String CREATE_STAGING = """
+			CREATE TEMP TABLE room_booking_import (
+			    seq         BIGINT       NOT NULL,
+			    line_no     BIGINT       NOT NULL,
+			    room_id     INTEGER      NOT NULL,
+			    building_id INTEGER      NOT NULL,
+			    title       VARCHAR(200) NOT NULL,
+			    organizer   VARCHAR(100) NOT NULL,
+			    start_time  TIMESTAMP    NOT NULL,
+			    end_time    TIMESTAMP    NOT NULL,
+			    attendees   INTEGER,
+			    description TEXT,
+			    status      VARCHAR(20)  NOT NULL
+			) ON COMMIT DROP""";
+
+	private static final String COPY_STAGING = "COPY room_booking_import (seq, line_no, room_id, building_id, title, " +
+			"organizer, start_time, end_time, attendees, description, status) FROM STDIN WITH (FORMAT csv)";
+
+	private static final String ENSURE_PARTITIONS = """
+			SELECT count(create_room_booking_partition(m::date))
+			FROM generate_series(date_trunc('month', ?::timestamp), ?::timestamp, INTERVAL '1 month') m""";
+
+	// 与库中已有确认预订重叠的行，startTime 下界用于分区裁剪
+	private static final String DELETE_CONFLICTS = """
+			DELETE FROM room_booking_import s
+			WHERE s.status = 'CONFIRMED'
+			  AND EXISTS (SELECT 1
+			              FROM room_booking b
+			              WHERE b.room_id = s.room_id
+			                AND b.status = 'CONFIRMED'
+			                AND b.start_time >= s.start_time - INTERVAL '24 hours'
+			                AND b.start_time < s.end_time
+			                AND b.end_time > s.start_time)
+			RETURNING s.line_no""";
+
+	// 按 Hibernate pooled 优化器的约定，nextval 返回值为一段ID的上界，与应用分配的ID不会重复；
+	// 新库第一次 nextval 小于步长的情况由 V16 迁移排除，返回值总是不小于 ID_BLOCK
+	private static final String INSERT_FROM_STAGING = """
+			WITH blocks AS (SELECT g - 1 AS block_no, nextval('room_booking_id_seq') AS hi
+			                FROM generate_series(1, ?) g)
+			INSERT INTO room_booking (id, room_id, building_id, title, organizer, start_time, end_time,
+			                          attendees, description, status)
+			SELECT b.hi - ? + 1 + s.seq % ?, s.room_id, s.building_id, s.title, s.organizer, s.start_time, s.end_time,
+			       s.attendees, s.description, s.status
+			FROM room_booking_import s
+			         JOIN blocks b ON b.block_no = s.seq / ?""";
+
+	private final MeetingRoomRepository roomRepository;
+	private final BookingIntervalIndex bookingIndex;
+	private final RoomStatusService roomStatusService;
+	private final RoomUsageRollupService rollupService;
+	private final BookingPartitionMaintenance partitionMaintenance;
+	private final RecurrenceService recurrenceService;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * 导入预订，buildingId 不为空时只接受该楼宇的会议室
+	 */
+	public BookingImportReport importBookings(InputStream input, BookingImportFormat format, Long buildingId) {
+		long started = System.currentTimeMillis();
+		ImportRun run = new ImportRun(roomRepository.findAll().stream()
+				.collect(Collectors.toMap(MeetingRoom::getName, Function.identity())), buildingId,
+				partitionMaintenance.archiveCutoff().map(LocalDate::atStartOfDay).orElse(null));
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				load(run, input, format);
+				if (run.imported > 0) {
+					// 其他实例按日期范围刷新
+					eventPublisher.publishEvent(new BookingsImportedEvent(run.minStart.toLocalDate(),
+							run.maxEnd.toLocalDate()));
+				}
+			});
+		} catch (IllegalArgumentException | UncheckedIOException | DataAccessException e) {
+			log.error("预订导入失败，已回滚 - 已读取 {} 行", run.total, e);
+			return BookingImportReport.builder()
+					.success(false)
+					.message("导入失败，未写入任何数据: " + e.getMessage())
+					.totalRows(run.total)
+					.rejected(run.rejected)
+					.rejections(run.rejections)
+					.elapsedMillis(System.currentTimeMillis() - started)
+					.build();
+		}
+
+		if (run.imported > 0) {
+			// 导入绕过了实体事件，汇总表和内存索引在提交后整体刷新
+			rollupService.backfill(run.minStart.toLocalDate(), run.maxEnd.toLocalDate());
+			if (run.maxEnd.isAfter(LocalDate.now().atStartOfDay())) {
+				bookingIndex.load();
+			}
+			roomStatusService.invalidate(run.minStart.toLocalDate(), run.maxEnd.toLocalDate());
+		}
+
+		long elapsed = System.currentTimeMillis() - started;
+		log.info("预订导入完成 - 读取: {}, 导入: {}, 拒绝: {}, 耗时: {}ms", run.total, run.imported, run.rejected, elapsed);
+		return BookingImportReport.builder()
+				.success(true)
+				.message(String.format("导入%d条，拒绝%d条", run.imported, run.rejected))
+				.totalRows(run.total)
+				.imported(run.imported)
+				.rejected(run.rejected)
+				.rejections(run.rejections)
+				.elapsedMillis(elapsed)
+				.build();
+	}
+
+	private void load(ImportRun run, InputStream input, BookingImportFormat format) {
+		jdbcTemplate.execute(CREATE_STAGING);
+		jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+			try {
+				copy(con.unwrap(PGConnection.class), run, input, format);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return null;
+		});
+		if (run.seq == 0) {
+			return;
+		}
+
+		jdbcTemplate.execute("ANALYZE room_booking_import");
+		jdbcTemplate.queryForObject(ENSURE_PARTITIONS, Long.class, run.minStart, run.maxStart);
+		jdbcTemplate.query(DELETE_CONFLICTS, rs -> {
+			run.reject(rs.getLong(1), "与已有预订重叠");
+		});
+
+		long blocks = (run.seq + ID_BLOCK - 1) / ID_BLOCK;
+		run.imported = jdbcTemplate.update(INSERT_FROM_STAGING, blocks, ID_BLOCK, ID_BLOCK, ID_BLOCK);
+	}
+
+	private void copy(PGConnection connection, ImportRun run, InputStream input, BookingImportFormat format)
+			throws SQLException, IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+		PGCopyOutputStream copyOut = new PGCopyOutputStream(connection, COPY_STAGING, BUFFER_SIZE);
+		Writer writer = new BufferedWriter(new OutputStreamWriter(copyOut, StandardCharsets.UTF_8), BUFFER_SIZE);
+		try {
+			if (format == BookingImportFormat.NDJSON) {
+				readNdjson(reader, run, writer);
+			} else {
+				readCsv(reader, run, writer);
+			}
+			// 关闭即结束 COPY
+			writer.close();
+		} catch (IOException | RuntimeException e) {
+			if (copyOut.isActive()) {
+				copyOut.cancelCopy();
+			}
+			throw e;
+		}
+	}
+
+	private void readCsv(BufferedReader reader, ImportRun run, Writer writer) throws IOException {
+		CsvReader csv = new CsvReader(reader);
+		List<String> header = csv.next();
+		if (header == null) {
+			return;
+		}
+
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			// 去掉 Excel 导出的 BOM
+			columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(), i);
+		}
+		List<String> missing = REQUIRED_CSV_COLUMNS.stream()
+				.filter(column -> !columns.containsKey(column))
+				.toList();
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException("CSV 缺少列: " + String.join(",", missing));
+		}
+
+		List<String> record;
+		while ((record = csv.next()) != null) {
+			run.total++;
+			String attendees = column(record, columns, "attendees");
+			Integer parsedAttendees;
+			try {
+				parsedAttendees = attendees == null || attendees.isBlank() ? null : Integer.valueOf(attendees.trim());
+			} catch (NumberFormatException e) {
+				run.reject(csv.getLineNumber(), "参会人数格式错误: " + attendees);
+				continue;
+			}
+			accept(run, csv.getLineNumber(), new BookingImportRow(
+					column(record, columns, "room_name"),
+					column(record, columns, "title"),
+					column(record, columns, "organizer"),
+					column(record, columns, "start_time"),
+					column(record, columns, "end_time"),
+					parsedAttendees,
+					column(record, columns, "description"),
+					column(record, columns, "status")), writer);
+		}
+	}
+
+	private void readNdjson(BufferedReader reader, ImportRun run, Writer writer) throws IOException {
+		String line;
+		long lineNo = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNo++;
+			if (line.isBlank()) {
+				continue;
+			}
+			run.total++;
+			BookingImportRow row;
+			try {
+				row = objectMapper.readValue(line, BookingImportRow.class);
+			} catch (JsonProcessingException e) {
+				run.reject(lineNo, "JSON 格式错误");
+				continue;
+			}
+			accept(run, lineNo, row, writer);
+		}
+	}
+
+	/**
+	 * 校验一行，通过则写入 COPY 流
+	 */
+	private void accept(ImportRun run, long line, BookingImportRow row, Writer writer) throws IOException {
+		MeetingRoom room = row.roomName() == null ? null : run.rooms.get(row.roomName().trim());
+		if (room == null) {
+			run.reject(line, "会议室不存在: " + row.roomName());
+			return;
+		}
+		if (run.buildingId != null && !run.buildingId.equals(room.getBuildingId())) {
+			run.reject(line, "会议室不属于指定楼宇: " + row.roomName());
+			return;
+		}
+		if (isBlank(row.title()) || isBlank(row.organizer())) {
+			run.reject(line, "会议主题和组织者不能为空");
+			return;
+		}
+		if (row.title().length() > 200 || row.organizer().length() > 100) {
+			run.reject(line, "会议主题或组织者过长");
+			return;
+		}
+
+		LocalDateTime start = parseTime(row.startTime());
+		LocalDateTime end = parseTime(row.endTime());
+		if (start == null || end == null) {
+			run.reject(line, "时间格式错误，应为 yyyy-MM-dd HH:mm:ss");
+			return;
+		}
+		if (!start.isBefore(end)) {
+			run.reject(line, "开始时间必须早于结束时间");
+			return;
+		}
+		// 该月分区已归档（或即将归档），不能再写入在线表
+		if (run.archiveBefore != null && start.isBefore(run.archiveBefore)) {
+			run.reject(line, "早于在线保留期，该月已归档: " + run.archiveBefore.toLocalDate());
+			return;
+		}
+
+		String status = isBlank(row.status()) ? "CONFIRMED" : row.status().trim().toUpperCase();
+		if (!"CONFIRMED".equals(status) && !"CANCELLED".equals(status)) {
+			run.reject(line, "状态只能是 CONFIRMED 或 CANCELLED");
+			return;
+		}
+
+		if ("CONFIRMED".equals(status)) {
+			if (Duration.between(start, end).compareTo(RoomBooking.MAX_DURATION) > 0) {
+				run.reject(line, "单次预订不能超过24小时");
+				return;
+			}
+			// 未结束的预订还要与周期预订比较，周期发生不在 room_booking 中，下面的重叠检查看不到
+			if (end.isAfter(run.startedAt) && recurrenceService.hasConflict(room.getId(), start, end)) {
+				run.reject(line, "与周期预订冲突");
+				return;
+			}
+			// 文件按开始时间排序时，与同一会议室此前最晚的结束时间比较即可发现重叠
+			LocalDateTime lastEnd = run.lastEndByRoom.get(room.getId());
+			if (lastEnd != null && start.isBefore(lastEnd)) {
+				run.reject(line, "与文件中前面的预订重叠（文件需按开始时间排序）");
+				return;
+			}
+			run.lastEndByRoom.merge(room.getId(), end, (a, b) -> a.isAfter(b) ? a : b);
+		}
+
+		writer.write(String.valueOf(run.seq++));
+		writer.write(',');
+		writer.write(String.valueOf(line));
+		writer.write(',');
+		writer.write(String.valueOf(room.getId()));
+		writer.write(',');
+		writer.write(String.valueOf(room.getBuildingId()));
+		writer.write(',');
+		writeQuoted(writer, row.title());
+		writer.write(',');
+		writeQuoted(writer, row.organizer());
+		writer.write(',');
+		writer.write(start.format(COPY_TIME));
+		writer.write(',');
+		writer.write(end.format(COPY_TIME));
+		writer.write(',');
+		if (row.attendees() != null) {
+			writer.write(String.valueOf(row.attendees()));
+		}
+		writer.write(',');
+		// COPY 的 CSV 格式中，不带引号的空值为 NULL
+		if (row.description() != null) {
+			writeQuoted(writer, row.description());
+		}
+		writer.write(',');
+		writer.write(status);
+		writer.write('\n');
+
+		run.track(start, end);
+	}
+
+	private static void writeQuoted(Writer writer, String value) throws IOException {
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	private static String column(List<String> record, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		return index == null || index >= record.size() ? null : record.get(index);
+	}
+
+	private static LocalDateTime parseTime(String value) {
+		if (isBlank(value)) {
+			return null;
+		}
+		try {
+			return LocalDateTime.parse(value.trim(), INPUT_TIME);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static boolean isBlank(String value) {
+		return value == null || value.isBlank();
+	}
+
+	/**
+	 * 一次导入的状态，只在导入线程内使用
+	 */
+	private static class ImportRun {
+		final Map<String, MeetingRoom> rooms;
+		final Long buildingId;
+
+		// 归档分界，早于它开始的预订不接受，为空表示不归档
+		final LocalDateTime archiveBefore;
+
+		final LocalDateTime startedAt = LocalDateTime.now();
+
+		// 会议室ID -> 已接受的确认预订中最晚的结束时间
+		final Map<Long, LocalDateTime> lastEndByRoom = new HashMap<>();
+		final List<BookingImportRejection> rejections = new ArrayList<>();
+
+		long total;
+		long seq;
+		long rejected;
+		long imported;
+		LocalDateTime minStart;
+		LocalDateTime maxStart;
+		LocalDateTime maxEnd;
+
+		ImportRun(Map<String, MeetingRoom> rooms, Long buildingId, LocalDateTime archiveBefore) {
+			this.rooms = rooms;
+			this.buildingId = buildingId;
+			this.archiveBefore = archiveBefore;
+		}
+
+		void reject(long line, String reason) {
+			rejected++;
+			if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+				rejections.add(new BookingImportRejection(line, reason));
+			}
+		}
+
+		void track(LocalDateTime start, LocalDateTime end) {
+			if (minStart == null || start.isBefore(minStart)) {
+				minStart = start;
+			}
+			if (maxStart == null || start.isAfter(maxStart)) {
+				maxStart = start;
+			}
+			if (maxEnd == null || end.isAfter(maxEnd)) {
+				maxEnd = end;
+			}
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 会议室预订的内存区间索引
+ * <p>
+ * 每个会议室维护一个按开始时间排序的跳表，只保存 CONFIRMED 状态的预订。
+ * 同一会议室的有效预订互不重叠，因此结束时间与开始时间同序，
+ * 冲突检查只需找到"开始时间早于新预订结束时间"的最后一条记录，O(log n) 完成。
+ * 数据库仍是唯一可信来源：索引在启动时加载，预订提交后增量更新，
+ * 未加载完成或查询早于索引起点时调用方应回退到数据库查询。
+ * 重新加载时在新的 Map 中构建，加载期间提交的变更先缓冲，构建完成后按顺序重放再整体替换；
+ * 每天零点移除前一天及更早结束的预订，索引大小只与未结束的预订数有关。
+ *
+ * @author tangtian
+ * @date 2025-12-01 09:30
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex {
+
+	private static final Comparator<Slot> SLOT_ORDER = Comparator
+			.comparing(Slot::startTime)
+			.thenComparing(Slot::bookingId);
+
+	private final RoomBookingRepository bookingRepository;
+
+	// 会议室ID -> 按开始时间排序的预订区间，重新加载时整体替换
+	private volatile Map<Long, NavigableSet<Slot>> roomSlots = new ConcurrentHashMap<>();
+
+	// 加载期间提交的变更，不在加载时为 null；与替换 roomSlots 共用 pendingLock
+	private final Object pendingLock = new Object();
+	private List<BookingChangedEvent> pending;
+
+	// 索引覆盖的最早时间，早于该时间的查询需回退到数据库
+	private volatile LocalDateTime horizon = LocalDateTime.MAX;
+
+	private volatile boolean ready = false;
+
+	/**
+	 * 在新的 Map 中加载后替换，加载期间当前索引继续提供查询
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void load() {
+		synchronized (pendingLock) {
+			pending = new ArrayList<>();
+		}
+		LocalDateTime since = LocalDate.now().atStartOfDay();
+		List<RoomBooking> bookings;
+		try {
+			bookings = bookingRepository.findConfirmedEndingAfter(since);
+		} catch (RuntimeException e) {
+			synchronized (pendingLock) {
+				pending = null;
+			}
+			throw e;
+		}
+
+		Map<Long, NavigableSet<Slot>> fresh = new ConcurrentHashMap<>();
+		for (RoomBooking booking : bookings) {
+			add(fresh, booking.getId(), booking.getRoom().getId(), booking.getStartTime(), booking.getEndTime());
+		}
+
+		synchronized (pendingLock) {
+			// 查询结果可能已包含这些变更：新增按ID去重，取消的从新索引中移除
+			for (BookingChangedEvent event : pending) {
+				apply(fresh, event);
+			}
+			log.info("预订区间索引加载完成 - 会议室: {}, 预订: {}, 重放变更: {}",
+					fresh.size(), bookings.size(), pending.size());
+			pending = null;
+			roomSlots = fresh;
+			horizon = since;
+			ready = true;
+		}
+	}
+
+	/**
+	 * 重新加载，用于可能漏掉变更事件之后（例如集群通知断线重连），当前索引不可信，加载期间调用方回退到数据库
+	 */
+	public void reload() {
+		ready = false;
+		load();
+	}
+
+	/**
+	 * 每天零点移除前一天及更早结束的预订，先前移索引起点，更早的查询回退到数据库
+	 */
+	@Scheduled(cron = "0 0 0 * * *")
+	public synchronized void evictEnded() {
+		if (!ready) {
+			return;
+		}
+		LocalDateTime cutoff = LocalDate.now().atStartOfDay();
+		horizon = cutoff;
+		int evicted = 0;
+		for (NavigableSet<Slot> slots : roomSlots.values()) {
+			// 同一会议室的预订互不重叠，结束时间与开始时间同序，从头移除即可
+			for (Slot slot : slots) {
+				if (slot.endTime().isAfter(cutoff)) {
+					break;
+				}
+				if (slots.remove(slot)) {
+					evicted++;
+				}
+			}
+		}
+		log.info("预订区间索引移除已结束的预订: {}", evicted);
+	}
+
+	/**
+	 * 索引是否能回答从 startTime 开始的查询
+	 */
+	public boolean covers(LocalDateTime startTime) {
+		return ready && !startTime.isBefore(horizon);
+	}
+
+	/**
+	 * 判断会议室在 [startTime, endTime) 内是否已有确认的预订
+	 */
+	public boolean hasConflict(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+		NavigableSet<Slot> slots = roomSlots.get(roomId);
+		if (slots == null) {
+			return false;
+		}
+
+		// 开始时间早于 endTime 的最后一个区间，若它在 startTime 之后结束即为冲突
+		Slot candidate = slots.lower(new Slot(endTime, endTime, Long.MIN_VALUE));
+		return candidate != null && candidate.endTime().isAfter(startTime);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		synchronized (pendingLock) {
+			if (pending != null) {
+				pending.add(event);
+			}
+			apply(roomSlots, event);
+		}
+	}
+
+	private static void apply(Map<Long, NavigableSet<Slot>> index, BookingChangedEvent event) {
+		if (event.type() == BookingChangeType.CREATED) {
+			add(index, event.bookingId(), event.roomId(), event.startTime(), event.endTime());
+		} else {
+			NavigableSet<Slot> slots = index.get(event.roomId());
+			if (slots != null) {
+				slots.remove(new Slot(event.startTime(), event.startTime(), event.bookingId()));
+			}
+		}
+	}
+
+	private static void add(Map<Long, NavigableSet<Slot>> index, Long bookingId, Long roomId,
+							LocalDateTime startTime, LocalDateTime endTime) {
+		index.computeIfAbsent(roomId, k -> new ConcurrentSkipListSet<>(SLOT_ORDER))
+				.add(new Slot(startTime, endTime, bookingId));
+	}
+
+	private record Slot(LocalDateTime startTime, LocalDateTime endTime, Long bookingId) {}
+}
@@ -0,0 +1,116 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.tangtian.meetingschedule.config.BookingConfig;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * room_booking 分区维护：预建未来月份的分区，分离归档超出保留期的历史分区
+ * 分区的创建在数据库函数中（见 V6、V14 迁移）；归档用 DETACH PARTITION ... CONCURRENTLY，
+ * 不能在事务内执行，由这里在自动提交连接上逐个分离，再调用 V15 的函数移入归档模式
+ *
+ * @author tangtian
+ * @date 2025-12-11 09:40
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingPartitionMaintenance {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final BookingConfig bookingConfig;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		maintain();
+	}
+
+	/**
+	 * 每天凌晨执行，多实例同时执行也是安全的：已存在的分区会跳过
+	 */
+	@Scheduled(cron = "${app.booking.partition.cron:0 30 2 * * *}")
+	public void maintain() {
+		try {
+			ensureFuturePartitions();
+			archiveExpiredPartitions();
+		} catch (Exception e) {
+			// 维护失败不影响业务，下次调度重试
+			log.error("room_booking 分区维护失败", e);
+		}
+	}
+
+	private void ensureFuturePartitions() {
+		BookingConfig.Partition config = bookingConfig.getPartition();
+		int months = Math.max(config.getMonthsAhead(), BookingService.MAX_ADVANCE_MONTHS + 1);
+
+		Integer created = jdbcTemplate.queryForObject(
+				"SELECT ensure_room_booking_partitions(?::date, ?)",
+				Integer.class, LocalDate.now(), months);
+		if (created != null && created > 0) {
+			log.info("新建 room_booking 分区 {} 个", created);
+		}
+	}
+
+	/**
+	 * 归档分界：早于该日期的整月分区会被归档，不归档时返回 empty
+	 */
+	public Optional<LocalDate> archiveCutoff() {
+		int retentionMonths = bookingConfig.getPartition().getRetentionMonths();
+		if (retentionMonths <= 0) {
+			return Optional.empty();
+		}
+		return Optional.of(LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths));
+	}
+
+	/**
+	 * 不在事务内执行：每条语句单独提交，并发分离只在开始和结束时短暂加锁，不阻塞预订读写。
+	 * 多实例同时执行时后执行的实例会失败并跳过，中断的并发分离和未移动的表在下次执行时继续完成
+	 */
+	private void archiveExpiredPartitions() {
+		BookingConfig.Partition config = bookingConfig.getPartition();
+		Optional<LocalDate> cutoff = archiveCutoff();
+		if (cutoff.isEmpty()) {
+			return;
+		}
+
+		LocalDate before = cutoff.get();
+		List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+				"SELECT partition_name, state FROM room_booking_partitions_to_archive(?::date)", before);
+		int archived = 0;
+		for (Map<String, Object> partition : partitions) {
+			String name = (String) partition.get("partition_name");
+			String state = (String) partition.get("state");
+			try {
+				// 名称由函数按 room_booking_YYYY_MM 筛选，可以直接拼接
+				switch (state) {
+					case "ATTACHED" -> jdbcTemplate.execute(
+							"ALTER TABLE room_booking DETACH PARTITION \"" + name + "\" CONCURRENTLY");
+					case "DETACH_PENDING" -> jdbcTemplate.execute(
+							"ALTER TABLE room_booking DETACH PARTITION \"" + name + "\" FINALIZE");
+					default -> {
+					}
+				}
+				jdbcTemplate.query("SELECT move_archived_room_booking_partition(?, ?::text)",
+						(ResultSetExtractor<Void>) rs -> null, name, config.getArchiveTablespace());
+				archived++;
+			} catch (DataAccessException e) {
+				log.warn("归档 room_booking 分区 {} 失败，下次维护时继续 - 状态: {}", name, state, e);
+			}
+		}
+		if (archived > 0) {
+			log.info("归档 {} 之前的 room_booking 分区 {} 个", before, archived);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.tangtian.meetingschedule.dto.BookingCursor;
+import top.tangtian.meetingschedule.dto.BookingInfo;
+import top.tangtian.meetingschedule.dto.BookingPage;
+import top.tangtian.meetingschedule.dto.BookingScope;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * "我的预订" 查询，按 (startTime, id) 键集分页，不使用 OFFSET，翻到多深耗时都一样
+ *
+ * @author tangtian
+ * @date 2025-12-13 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingQueryService {
+
+	static final int DEFAULT_PAGE_SIZE = 20;
+	static final int MAX_PAGE_SIZE = 100;
+
+	// 未指定时间窗口时的边界，只用于拼查询条件
+	private static final LocalDateTime MIN_TIME = LocalDateTime.of(2000, 1, 1, 0, 0);
+	private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+	private final RoomBookingRepository bookingRepository;
+
+	/**
+	 * @param scope  查询范围，为空时查询未结束的预订
+	 * @param from   开始时间下界（含），可为空
+	 * @param to     开始时间上界（不含），可为空
+	 * @param cursor 上一页返回的 nextCursor，第一页为空
+	 */
+	@Transactional(readOnly = true)
+	public BookingPage listBookings(String organizer, BookingScope scope, LocalDateTime from, LocalDateTime to,
+									String cursor, Integer size) {
+		if (organizer == null || organizer.isBlank()) {
+			return failure("组织者不能为空");
+		}
+
+		BookingCursor after;
+		try {
+			after = cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+		} catch (IllegalArgumentException e) {
+			return failure(e.getMessage());
+		}
+
+		int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime lower = from == null ? MIN_TIME : from;
+		LocalDateTime upper = to == null ? MAX_TIME : to;
+
+		// 多取一条用来判断是否还有下一页
+		Limit limit = Limit.of(pageSize + 1);
+		List<BookingInfo> rows;
+
+		if (scope == BookingScope.PAST) {
+			// 已结束的预订开始时间不会晚于当前时间，上界取两者较小值以便裁剪分区
+			LocalDateTime beforeStart = after == null ? min(upper, now) : after.startTime();
+			long beforeId = after == null ? Long.MIN_VALUE : after.id();
+			rows = bookingRepository.findOrganizerPageDesc(organizer, now, beforeStart, beforeId, lower, limit);
+		} else {
+			boolean upcoming = scope == null || scope == BookingScope.UPCOMING;
+			// 未结束的预订开始时间不会早于 now - 最长时长
+			LocalDateTime firstStart = upcoming ? max(lower, now.minus(RoomBooking.MAX_DURATION)) : lower;
+			LocalDateTime afterStart = after == null ? firstStart : after.startTime();
+			long afterId = after == null ? Long.MIN_VALUE : after.id();
+			rows = bookingRepository.findOrganizerPageAsc(organizer, upcoming ? now : MIN_TIME,
+					afterStart, afterId, upper, limit);
+		}
+
+		boolean hasMore = rows.size() > pageSize;
+		List<BookingInfo> bookings = hasMore ? rows.subList(0, pageSize) : rows;
+		BookingInfo last = bookings.isEmpty() ? null : bookings.get(bookings.size() - 1);
+
+		return BookingPage.builder()
+				.success(true)
+				.message(bookings.isEmpty() ? "没有找到预订" : String.format("共%d条预订", bookings.size()))
+				.bookings(bookings)
+				.hasMore(hasMore)
+				.nextCursor(hasMore ? new BookingCursor(last.getStartTime(), last.getId()).encode() : null)
+				.build();
+	}
+
+	private static BookingPage failure(String message) {
+		return BookingPage.builder()
+				.success(false)
+				.message(message)
+				.bookings(List.of())
+				.build();
+	}
+
+	private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+		return a.isBefore(b) ? a : b;
+	}
+
+	private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+		return a.isAfter(b) ? a : b;
+	}
+}
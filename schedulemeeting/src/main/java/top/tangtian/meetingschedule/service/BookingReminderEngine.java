@@ -0,0 +1,295 @@
+package top.tangtian.meetingschedule.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.tangtian.meetingschedule.config.BookingConfig;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.event.BookingReminderEvent;
+import top.tangtian.meetingschedule.event.BookingsImportedEvent;
+import top.tangtian.meetingschedule.util.HashedTimingWheel;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会前提醒和未签到释放
+ * <p>
+ * 只把未来一个窗口内开始的预订装入时间轮，每个预订排两个任务：开始前提醒、开始后宽限期满释放。
+ * 时间轮一圈覆盖整个窗口，每个 tick 只处理当期到期的任务，到期任务按批次一次更新数据库。
+ * 窗口定时向前补充，窗口内新建或取消的预订由变更事件增量维护。
+ * <p>
+ * 多实例部署时提醒用 reminded_at 抢占，释放的条件本身是幂等的，不会重复执行。
+ *
+ * @author tangtian
+ * @date 2025-12-22 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingReminderEngine {
+
+	// 每次向前加载多长时间内开始的预订
+	private static final Duration LOAD_WINDOW = Duration.ofHours(2);
+	private static final Duration TICK = Duration.ofSeconds(1);
+
+	private static final String LOAD = """
+			SELECT id, room_id, start_time, end_time
+			FROM room_booking
+			WHERE status = 'CONFIRMED' AND start_time >= ? AND start_time < ?""";
+
+	// 抢占提醒，只返回本实例抢到且仍有效的预订
+	private static final String CLAIM_REMINDERS = """
+			UPDATE room_booking
+			SET reminded_at = now()
+			WHERE id = ANY (?) AND start_time >= ? AND start_time <= ?
+			  AND status = 'CONFIRMED' AND reminded_at IS NULL
+			RETURNING id, room_id, title, organizer, start_time, end_time""";
+
+	private static final String RELEASE_NO_SHOWS = """
+			UPDATE room_booking
+			SET status = 'RELEASED'
+			WHERE id = ANY (?) AND start_time >= ? AND start_time <= ?
+			  AND status = 'CONFIRMED' AND checked_in_at IS NULL
+			RETURNING id, room_id, start_time, end_time""";
+
+	private final BookingConfig bookingConfig;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+
+	// 预订ID -> 已排入时间轮的任务，取消预订时撤销
+	private final Map<Long, List<HashedTimingWheel.Timeout<Action>>> scheduled = new ConcurrentHashMap<>();
+
+	private volatile HashedTimingWheel<Action> wheel;
+
+	// 开始时间早于该值的预订已加载
+	private volatile LocalDateTime loadedUntil;
+
+	private enum ActionType {
+		REMIND,
+		RELEASE
+	}
+
+	// last 表示该预订的最后一个任务，执行后不再跟踪
+	private record Action(ActionType type, Long bookingId, LocalDateTime startTime, boolean last) {
+	}
+
+	private record Upcoming(Long bookingId, Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		Duration grace = Duration.ofMinutes(bookingConfig.getNoShow().getGraceMinutes());
+		// 一圈覆盖加载窗口和宽限期，任务都在一圈内到期
+		int wheelSize = (int) (LOAD_WINDOW.plus(grace).plusMinutes(10).toMillis() / TICK.toMillis());
+
+		// 宽限期内已开始的预订也要排上释放任务
+		loadedUntil = LocalDateTime.now().minus(grace);
+		HashedTimingWheel<Action> timingWheel = new HashedTimingWheel<>("booking-reminder", TICK, wheelSize, this::fire);
+		timingWheel.start();
+		wheel = timingWheel;
+		refill();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (wheel != null) {
+			wheel.stop();
+		}
+	}
+
+	/**
+	 * 把加载窗口推进到 now + LOAD_WINDOW，只查询新进入窗口的一段
+	 */
+	@Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+	public void refill() {
+		if (wheel == null || (!bookingConfig.getReminder().isEnabled() && !bookingConfig.getNoShow().isEnabled())) {
+			return;
+		}
+		LocalDateTime from = loadedUntil;
+		LocalDateTime until = LocalDateTime.now().plus(LOAD_WINDOW);
+		if (!until.isAfter(from)) {
+			return;
+		}
+
+		// 先推进窗口再查询，查询期间提交的预订由事件排程，重复的按预订ID去重
+		loadedUntil = until;
+		int loaded = load(from, until);
+		log.debug("提醒时间轮补充 {} ~ {}，预订 {} 条，轮中共 {} 条", from, until, loaded, scheduled.size());
+	}
+
+	/**
+	 * 批量导入没有逐条的预订事件，已加载窗口内的部分重新查询一次，已排程的预订按ID去重
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onBookingsImported(BookingsImportedEvent event) {
+		if (wheel == null) {
+			return;
+		}
+		LocalDateTime earliest = LocalDateTime.now().minusMinutes(bookingConfig.getNoShow().getGraceMinutes());
+		LocalDateTime eventFrom = event.fromDate().atStartOfDay();
+		LocalDateTime eventUntil = event.toDate().plusDays(1).atStartOfDay();
+		LocalDateTime from = eventFrom.isAfter(earliest) ? eventFrom : earliest;
+		LocalDateTime until = eventUntil.isBefore(loadedUntil) ? eventUntil : loadedUntil;
+		if (!until.isAfter(from)) {
+			return;
+		}
+		int loaded = load(from, until);
+		log.info("导入预订后补充提醒时间轮 {} ~ {}，预订 {} 条", from, until, loaded);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		if (wheel == null) {
+			return;
+		}
+		if (event.type() == BookingChangeType.CREATED) {
+			// 窗口之后的预订等补充时再加载
+			if (event.startTime().isBefore(loadedUntil)) {
+				schedule(new Upcoming(event.bookingId(), event.roomId(), event.startTime(), event.endTime()));
+			}
+		} else {
+			List<HashedTimingWheel.Timeout<Action>> timeouts = scheduled.remove(event.bookingId());
+			if (timeouts != null) {
+				timeouts.forEach(HashedTimingWheel.Timeout::cancel);
+			}
+		}
+	}
+
+	private int load(LocalDateTime from, LocalDateTime until) {
+		List<Upcoming> upcoming = jdbcTemplate.query(LOAD, (rs, rowNum) -> new Upcoming(
+				rs.getLong("id"), rs.getLong("room_id"),
+				rs.getTimestamp("start_time").toLocalDateTime(),
+				rs.getTimestamp("end_time").toLocalDateTime()), from, until);
+		upcoming.forEach(this::schedule);
+		return upcoming.size();
+	}
+
+	private void schedule(Upcoming booking) {
+		LocalDateTime now = LocalDateTime.now();
+		BookingConfig.Reminder reminder = bookingConfig.getReminder();
+		BookingConfig.NoShow noShow = bookingConfig.getNoShow();
+
+		LocalDateTime remindAt = booking.startTime().minusMinutes(reminder.getMinutesBefore());
+		LocalDateTime releaseAt = booking.startTime().plusMinutes(noShow.getGraceMinutes());
+		// 已开始的不再提醒，宽限期满时已结束的不用释放
+		boolean remind = reminder.isEnabled() && booking.startTime().isAfter(now);
+		boolean release = noShow.isEnabled() && releaseAt.isBefore(booking.endTime());
+		if (!remind && !release) {
+			return;
+		}
+
+		scheduled.computeIfAbsent(booking.bookingId(), id -> {
+			List<HashedTimingWheel.Timeout<Action>> timeouts = new ArrayList<>(2);
+			if (remind) {
+				timeouts.add(wheel.schedule(new Action(ActionType.REMIND, id, booking.startTime(), !release),
+						epochMillis(remindAt)));
+			}
+			if (release) {
+				timeouts.add(wheel.schedule(new Action(ActionType.RELEASE, id, booking.startTime(), true),
+						epochMillis(releaseAt)));
+			}
+			return timeouts;
+		});
+	}
+
+	/**
+	 * 时间轮工作线程调用，同一 tick 到期的任务一批处理
+	 */
+	private void fire(List<Action> actions) {
+		List<Action> reminders = new ArrayList<>();
+		List<Action> releases = new ArrayList<>();
+		for (Action action : actions) {
+			(action.type() == ActionType.REMIND ? reminders : releases).add(action);
+			if (action.last()) {
+				scheduled.remove(action.bookingId());
+			}
+		}
+
+		// 两类任务互不影响，失败的批次只记录日志，时间轮继续运行
+		if (!reminders.isEmpty()) {
+			try {
+				sendReminders(reminders);
+			} catch (Exception e) {
+				log.error("发送会议提醒失败 - {} 条", reminders.size(), e);
+			}
+		}
+		if (!releases.isEmpty()) {
+			try {
+				releaseNoShows(releases);
+			} catch (Exception e) {
+				log.error("释放未签到预订失败 - {} 条", releases.size(), e);
+			}
+		}
+	}
+
+	private void sendReminders(List<Action> batch) {
+		List<BookingReminderEvent> claimed = update(CLAIM_REMINDERS, batch, (rs, rowNum) -> new BookingReminderEvent(
+				rs.getLong("id"), rs.getLong("room_id"), rs.getString("title"), rs.getString("organizer"),
+				rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime()));
+		for (BookingReminderEvent reminder : claimed) {
+			log.info("会议提醒 - 预订: {}, 会议: {}, 组织者: {}, 开始: {}",
+					reminder.bookingId(), reminder.title(), reminder.organizer(), reminder.startTime());
+			eventPublisher.publishEvent(reminder);
+		}
+	}
+
+	private void releaseNoShows(List<Action> batch) {
+		// 与预订取消一样发布变更事件，汇总表在同一事务内更新，内存索引在提交后更新
+		Integer released = transactionTemplate.execute(status -> {
+			List<BookingChangedEvent> events = update(RELEASE_NO_SHOWS, batch, (rs, rowNum) -> new BookingChangedEvent(
+					rs.getLong("id"), rs.getLong("room_id"),
+					rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime(),
+					BookingChangeType.RELEASED));
+			events.forEach(eventPublisher::publishEvent);
+			return events.size();
+		});
+		if (released != null && released > 0) {
+			log.info("未签到自动释放预订 {} 条", released);
+		}
+	}
+
+	/**
+	 * 按ID批量更新，开始时间范围用于分区裁剪
+	 */
+	private <T> List<T> update(String sql, List<Action> batch, RowMapper<T> mapper) {
+		Long[] ids = batch.stream().map(Action::bookingId).toArray(Long[]::new);
+		LocalDateTime minStart = batch.stream().map(Action::startTime).min(Comparator.naturalOrder()).orElseThrow();
+		LocalDateTime maxStart = batch.stream().map(Action::startTime).max(Comparator.naturalOrder()).orElseThrow();
+
+		return jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(sql);
+			Array array = con.createArrayOf("bigint", ids);
+			ps.setArray(1, array);
+			ps.setTimestamp(2, Timestamp.valueOf(minStart));
+			ps.setTimestamp(3, Timestamp.valueOf(maxStart));
+			return ps;
+		}, mapper);
+	}
+
+	private static long epochMillis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
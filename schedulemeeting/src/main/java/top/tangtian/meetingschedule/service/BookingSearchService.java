@@ -0,0 +1,99 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.tangtian.meetingschedule.dto.BookingSearchHit;
+import top.tangtian.meetingschedule.dto.BookingSearchResponse;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 预订搜索：基于 pg_trgm 三元组索引的关键词搜索，按相似度排序
+ *
+ * @author tangtian
+ * @date 2025-12-14 10:40
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSearchService {
+
+	static final int DEFAULT_PAGE_SIZE = 20;
+	static final int MAX_PAGE_SIZE = 50;
+
+	// 按相似度排序只能 OFFSET 翻页，限制可翻到的深度
+	static final int MAX_RESULTS = 1000;
+
+	// 单个字提取不出有效的三元组，无法利用索引
+	static final int MIN_KEYWORD_LENGTH = 2;
+
+	private final RoomBookingRepository bookingRepository;
+
+	/**
+	 * @param from 开始时间下界（含），为空时为一年前
+	 * @param to   开始时间上界（不含），为空时为可预订的最远时间
+	 * @param page 页码，从0开始
+	 */
+	@Transactional(readOnly = true)
+	public BookingSearchResponse search(String keyword, LocalDateTime from, LocalDateTime to,
+										Integer page, Integer size) {
+		log.info("搜索预订 - 关键词: {}, 时间: {} ~ {}", keyword, from, to);
+
+		String trimmed = keyword == null ? "" : keyword.trim();
+		if (trimmed.length() < MIN_KEYWORD_LENGTH) {
+			return failure(String.format("关键词至少需要%d个字", MIN_KEYWORD_LENGTH));
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime windowStart = from == null ? now.minusYears(1) : from;
+		LocalDateTime windowEnd = to == null ? now.plusMonths(BookingService.MAX_ADVANCE_MONTHS) : to;
+		if (!windowStart.isBefore(windowEnd)) {
+			return failure("开始时间必须早于结束时间");
+		}
+
+		int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+		int pageNumber = page == null ? 0 : Math.max(page, 0);
+		int offset = pageNumber * pageSize;
+		if (offset >= MAX_RESULTS) {
+			return failure(String.format("最多只能查看前%d条结果，请缩小时间范围或使用更具体的关键词", MAX_RESULTS));
+		}
+
+		// 多取一条判断是否还有下一页
+		List<BookingSearchHit> rows = bookingRepository.searchBookings(trimmed, likePattern(trimmed),
+				windowStart, windowEnd, pageSize + 1, offset);
+
+		boolean hasMore = rows.size() > pageSize && offset + pageSize < MAX_RESULTS;
+		List<BookingSearchHit> hits = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+
+		return BookingSearchResponse.builder()
+				.success(true)
+				.message(hits.isEmpty() ? "没有找到相关预订" : String.format("找到%d条相关预订", hits.size()))
+				.page(pageNumber)
+				.hasMore(hasMore)
+				.hits(hits)
+				.build();
+	}
+
+	/**
+	 * 转义 LIKE 通配符，关键词按字面匹配
+	 */
+	static String likePattern(String keyword) {
+		String escaped = keyword
+				.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_");
+		return "%" + escaped + "%";
+	}
+
+	private static BookingSearchResponse failure(String message) {
+		return BookingSearchResponse.builder()
+				.success(false)
+				.message(message)
+				.hits(List.of())
+				.build();
+	}
+}
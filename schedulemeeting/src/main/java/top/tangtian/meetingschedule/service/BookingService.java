@@ -2,18 +2,30 @@ package top.tangtian.meetingschedule.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.tangtian.meetingschedule.config.BookingConfig;
 import top.tangtian.meetingschedule.dto.BookingInfo;
 import top.tangtian.meetingschedule.dto.BookingRequest;
 import top.tangtian.meetingschedule.dto.BookingResponse;
+import top.tangtian.meetingschedule.dto.HoldRequest;
+import top.tangtian.meetingschedule.dto.HoldResponse;
+import top.tangtian.meetingschedule.dto.SlotHold;
 import top.tangtian.meetingschedule.entity.MeetingRoom;
 import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
 import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
 import top.tangtian.meetingschedule.repository.RoomBookingRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -25,55 +37,125 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingService {
 
+	// 最多可提前预订的月数
+	static final int MAX_ADVANCE_MONTHS = 24;
+
 	private final MeetingRoomRepository roomRepository;
 	private final RoomBookingRepository bookingRepository;
+	private final BookingIntervalIndex bookingIndex;
+	private final RecurrenceService recurrenceService;
+	private final SlotHoldRegistry slotHolds;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final BookingConfig bookingConfig;
 
-	@Transactional
 	public BookingResponse createBooking(BookingRequest request) {
 		log.info("Creating booking: {}", request);
 
 		// 验证时间
-		if (request.getStartTime().isAfter(request.getEndTime())) {
+		String timeError = validateTime(request);
+		if (timeError != null) {
 			return BookingResponse.builder()
 					.success(false)
-					.message("开始时间不能晚于结束时间")
+					.message(timeError)
 					.build();
 		}
 
-		if (request.getStartTime().isBefore(LocalDateTime.now())) {
+		// 查找会议室
+		MeetingRoom room = roomRepository.findByName(request.getRoomName())
+				.orElseThrow(() -> new RuntimeException("会议室不存在: " + request.getRoomName()));
+
+		// 检查容量
+		String capacityError = validateCapacity(request, room);
+		if (capacityError != null) {
 			return BookingResponse.builder()
 					.success(false)
-					.message("不能预订过去的时间")
+					.message(capacityError)
 					.build();
 		}
 
-		// 查找会议室
-		MeetingRoom room = roomRepository.findByName(request.getRoomName())
-				.orElseThrow(() -> new RuntimeException("会议室不存在: " + request.getRoomName()));
+		// 检查时间冲突（快速失败，最终由数据库排他约束保证）
+		if (hasConflict(room.getId(), request.getStartTime(), request.getEndTime())) {
+			return BookingResponse.builder()
+					.success(false)
+					.message("该时间段已被预订")
+					.build();
+		}
 
-		// 检查容量
-		if (request.getAttendees() != null && request.getAttendees() > room.getCapacity()) {
+		// 其他人保留中的时段不能预订，自己的保留不算冲突；holdId 与会议室、时段或组织者不符时不认
+		String ownHoldId = slotHolds.matching(request.getHoldId(), room.getId(), request.getStartTime(),
+				request.getEndTime(), request.getOrganizer()).map(SlotHold::holdId).orElse(null);
+		if (slotHolds.conflicts(room.getId(), request.getStartTime(), request.getEndTime(), ownHoldId)) {
 			return BookingResponse.builder()
 					.success(false)
-					.message(String.format("会议室容量不足，最多容纳%d人", room.getCapacity()))
+					.message("该时间段正被其他用户暂时保留，请稍后再试或选择其他时间")
 					.build();
 		}
 
-		// 检查时间冲突
-		List<RoomBooking> conflicts = bookingRepository.findConflictingBookings(
-				room.getId(), request.getStartTime(), request.getEndTime()
-		);
+		// 创建预订
+		RoomBooking booking = toEntity(request, room);
 
-		if (!conflicts.isEmpty()) {
+		try {
+			booking = persist(booking);
+		} catch (DataIntegrityViolationException e) {
+			if (!BookingConstraints.isOverlapViolation(e)) {
+				throw e;
+			}
+			log.info("预订与已有预订重叠，被数据库约束拒绝: {}", request);
 			return BookingResponse.builder()
 					.success(false)
 					.message("该时间段已被预订")
 					.build();
 		}
 
-		// 创建预订
-		RoomBooking booking = RoomBooking.builder()
+		// 保留已转为正式预订
+		slotHolds.release(ownHoldId);
+
+		return BookingResponse.builder()
+				.success(true)
+				.message("预订成功")
+				.bookingId(booking.getId())
+				.bookingInfo(convertToInfo(booking))
+				.build();
+	}
+
+	/**
+	 * 校验预订时间，通过返回 null，否则返回错误信息
+	 */
+	static String validateTime(BookingRequest request) {
+		if (request.getStartTime() == null || request.getEndTime() == null) {
+			return "开始时间和结束时间不能为空";
+		}
+		if (request.getStartTime().isAfter(request.getEndTime())) {
+			return "开始时间不能晚于结束时间";
+		}
+		if (request.getStartTime().isBefore(LocalDateTime.now())) {
+			return "不能预订过去的时间";
+		}
+		if (Duration.between(request.getStartTime(), request.getEndTime()).compareTo(RoomBooking.MAX_DURATION) > 0) {
+			return "单次预订不能超过24小时";
+		}
+		// 未来分区只预建到这个范围
+		if (request.getStartTime().isAfter(LocalDateTime.now().plusMonths(MAX_ADVANCE_MONTHS))) {
+			return String.format("最多只能预订%d个月内的会议室", MAX_ADVANCE_MONTHS);
+		}
+		return null;
+	}
+
+	/**
+	 * 校验会议室容量，通过返回 null，否则返回错误信息
+	 */
+	static String validateCapacity(BookingRequest request, MeetingRoom room) {
+		if (request.getAttendees() != null && request.getAttendees() > room.getCapacity()) {
+			return String.format("会议室容量不足，最多容纳%d人", room.getCapacity());
+		}
+		return null;
+	}
+
+	static RoomBooking toEntity(BookingRequest request, MeetingRoom room) {
+		return RoomBooking.builder()
 				.room(room)
+				.buildingId(room.getBuildingId())
 				.title(request.getTitle())
 				.organizer(request.getOrganizer())
 				.startTime(request.getStartTime())
@@ -82,32 +164,193 @@ public class BookingService {
 				.description(request.getDescription())
 				.status("CONFIRMED")
 				.build();
+	}
+
+	private RoomBooking persist(RoomBooking booking) {
+		return transactionTemplate.execute(status -> {
+			// 与周期预订的写入串行，按库中已提交的系列复查
+			recurrenceService.checkPersistedConflicts(List.of(booking));
+			RoomBooking saved = bookingRepository.saveAndFlush(booking);
+
+			// 事务提交后由监听方更新内存索引
+			eventPublisher.publishEvent(BookingChangedEvent.of(saved, BookingChangeType.CREATED));
+			return saved;
+		});
+	}
+
+	/**
+	 * 取消预订，只能由组织者取消尚未结束的 CONFIRMED 预订
+	 * 状态用条件更新修改，并发取消或与未签到释放同时发生时只有一方更新成功并发布事件
+	 */
+	public BookingResponse cancelBooking(Long bookingId, String organizer) {
+		log.info("Cancelling booking: {}", bookingId);
 
-		booking = bookingRepository.save(booking);
+		String error = transactionTemplate.execute(status -> {
+			RoomBooking booking = bookingRepository.findById(bookingId).orElse(null);
+			if (booking == null) {
+				return "预订不存在: " + bookingId;
+			}
+			if (organizer == null || !organizer.equals(booking.getOrganizer())) {
+				return "只有组织者可以取消预订";
+			}
+			if (!"CONFIRMED".equals(booking.getStatus())) {
+				return "RELEASED".equals(booking.getStatus()) ? "预订因未按时签到已被释放" : "预订已取消";
+			}
+			LocalDateTime now = LocalDateTime.now();
+			if (!booking.getEndTime().isAfter(now)) {
+				return "已结束的预订不能取消";
+			}
+			if (bookingRepository.markCancelled(bookingId, booking.getStartTime(), organizer, now) == 0) {
+				// 读取之后被其他请求取消或被释放
+				return "预订已取消或已被释放";
+			}
+			eventPublisher.publishEvent(BookingChangedEvent.of(booking, BookingChangeType.CANCELLED));
+			return null;
+		});
 
+		if (error != null) {
+			return BookingResponse.builder()
+					.success(false)
+					.message(error)
+					.build();
+		}
 		return BookingResponse.builder()
 				.success(true)
-				.message("预订成功")
-				.bookingId(booking.getId())
-				.bookingInfo(convertToInfo(booking))
+				.message("预订已取消")
+				.bookingId(bookingId)
 				.build();
 	}
 
+	/**
+	 * 签到，会议开始前若干分钟到结束前都可以签到；开启未签到释放时，宽限期满未签到的预订会被释放
+	 */
+	public BookingResponse checkIn(Long bookingId) {
+		log.info("Checking in booking: {}", bookingId);
+
+		String error = transactionTemplate.execute(status -> {
+			RoomBooking booking = bookingRepository.findById(bookingId).orElse(null);
+			if (booking == null) {
+				return "预订不存在: " + bookingId;
+			}
+			if (!"CONFIRMED".equals(booking.getStatus())) {
+				return "RELEASED".equals(booking.getStatus()) ? "预订因未按时签到已被释放" : "预订已取消";
+			}
+
+			LocalDateTime now = LocalDateTime.now();
+			int opensBefore = bookingConfig.getNoShow().getCheckInOpensMinutesBefore();
+			if (now.isBefore(booking.getStartTime().minusMinutes(opensBefore))) {
+				return String.format("会议开始前%d分钟内才能签到", opensBefore);
+			}
+			if (!booking.getEndTime().isAfter(now)) {
+				return "会议已结束";
+			}
+			if (bookingRepository.markCheckedIn(bookingId, booking.getStartTime(), now) == 0) {
+				return "已签到";
+			}
+			return null;
+		});
+
+		if (error != null) {
+			return BookingResponse.builder()
+					.success(false)
+					.message(error)
+					.build();
+		}
+		return BookingResponse.builder()
+				.success(true)
+				.message("签到成功")
+				.bookingId(bookingId)
+				.build();
+	}
+
+	/**
+	 * 临时保留会议室时段，有效期内其他人无法预订该时段
+	 */
+	public HoldResponse holdSlot(HoldRequest request) {
+		log.info("Holding slot: {}", request);
+
+		String timeError = validateTime(BookingRequest.builder()
+				.startTime(request.getStartTime())
+				.endTime(request.getEndTime())
+				.build());
+		if (timeError != null) {
+			return HoldResponse.builder()
+					.success(false)
+					.message(timeError)
+					.build();
+		}
+
+		MeetingRoom room = roomRepository.findByName(request.getRoomName())
+				.orElseThrow(() -> new RuntimeException("会议室不存在: " + request.getRoomName()));
+
+		if (hasConflict(room.getId(), request.getStartTime(), request.getEndTime())) {
+			return HoldResponse.builder()
+					.success(false)
+					.message("该时间段已被预订")
+					.build();
+		}
+
+		return slotHolds.tryHold(room.getId(), room.getName(), request.getStartTime(),
+						request.getEndTime(), request.getHolder())
+				.map(hold -> HoldResponse.builder()
+						.success(true)
+						.message("已为您保留该时段")
+						.hold(hold)
+						.build())
+				.orElseGet(() -> HoldResponse.builder()
+						.success(false)
+						.message("该时间段正被其他用户暂时保留，请稍后再试或选择其他时间")
+						.build());
+	}
+
+	public void releaseHold(String holdId) {
+		slotHolds.release(holdId);
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<BookingInfo> getBooking(Long id) {
+		return bookingRepository.findBookingInfoById(id);
+	}
+
+	@Transactional(readOnly = true)
 	public List<BookingInfo> getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
 		List<MeetingRoom> allRooms = roomRepository.findAll();
+
+		// 索引不可用时一次查出窗口内被占用的会议室，而不是逐个会议室查询
+		Set<Long> busyRoomIds = bookingIndex.covers(startTime)
+				? null
+				: bookingRepository.findConfirmedOverlapping(startTime, endTime).stream()
+						.map(booking -> booking.getRoom().getId())
+						.collect(Collectors.toSet());
+
 		return allRooms.stream()
-				.filter(room -> isRoomAvailable(room.getId(), startTime, endTime))
+				.filter(room -> busyRoomIds == null
+						? !bookingIndex.hasConflict(room.getId(), startTime, endTime)
+						: !busyRoomIds.contains(room.getId()))
+				.filter(room -> !recurrenceService.hasConflict(room.getId(), startTime, endTime))
 				.map(room -> BookingInfo.builder()
 						.roomName(room.getName())
 						.build())
 				.collect(Collectors.toList());
 	}
 
-	private boolean isRoomAvailable(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
-		return bookingRepository.findConflictingBookings(roomId, startTime, endTime).isEmpty();
+	private boolean hasConflict(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+		// 周期预订的发生不在 room_booking 中，需要单独展开检查
+		if (recurrenceService.hasConflict(roomId, startTime, endTime)) {
+			return true;
+		}
+
+		// 优先走内存索引，索引未就绪或时间早于索引起点时回退到数据库
+		if (bookingIndex.covers(startTime)) {
+			return bookingIndex.hasConflict(roomId, startTime, endTime);
+		}
+		return !bookingRepository.findConflictingBookings(roomId, startTime, endTime).isEmpty();
 	}
 
-	private BookingInfo convertToInfo(RoomBooking booking) {
+	/**
+	 * 仅用于刚保存的实体，room 已在预订时加载；查询已有预订请使用投影查询 {@link #getBooking}
+	 */
+	static BookingInfo convertToInfo(RoomBooking booking) {
 		return BookingInfo.builder()
 				.id(booking.getId())
 				.roomName(booking.getRoom().getName())
@@ -0,0 +1,36 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import top.tangtian.meetingschedule.entity.Building;
+import top.tangtian.meetingschedule.repository.BuildingRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 楼宇查询，对外接口使用楼宇编码，内部使用楼宇ID
+ *
+ * @author tangtian
+ * @date 2025-12-17 09:50
+ */
+@Service
+@RequiredArgsConstructor
+public class BuildingService {
+
+	private final BuildingRepository buildingRepository;
+
+	public List<Building> listBuildings() {
+		return buildingRepository.findAll();
+	}
+
+	/**
+	 * 楼宇编码转换为ID，编码为空返回 empty 表示不限楼宇
+	 */
+	public Optional<Building> findByCode(String code) {
+		if (code == null || code.isBlank()) {
+			return Optional.empty();
+		}
+		return buildingRepository.findByCode(code.trim());
+	}
+}
@@ -0,0 +1,286 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.tangtian.meetingschedule.entity.Building;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.OccurrenceOverride;
+import top.tangtian.meetingschedule.entity.RecurrenceFrequency;
+import top.tangtian.meetingschedule.entity.RecurringBooking;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+import top.tangtian.meetingschedule.repository.RecurringBookingRepository;
+import top.tangtian.meetingschedule.util.IcsWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 会议室 / 楼宇的 iCalendar 订阅
+ * <p>
+ * 单次预订用数据库游标逐行读取并直接写到响应流；周期预订输出为一条带 RRULE 的事件，
+ * 取消和改期的发生用 EXDATE 和 RECURRENCE-ID 表示。
+ * <p>
+ * 同步令牌是读取时快照的 xmin：小于它的事务都已结束，之后提交的变更其 change_xid 一定不小于它。
+ * 客户端带上次的令牌请求时，只返回 change_xid 不小于令牌的预订（包括已取消的），重复返回的事件按 UID 覆盖即可。
+ *
+ * @author tangtian
+ * @date 2025-12-21 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarFeedService {
+
+	private static final int FETCH_SIZE = 500;
+	private static final String UID_DOMAIN = "@meetingschedule";
+
+	// %s 为 room_id 或 building_id，startTime 下界用于分区裁剪
+	private static final String FULL_BOOKINGS = """
+			SELECT id, room_id, title, organizer, description, start_time, end_time, status, created_at
+			FROM room_booking
+			WHERE %s = ? AND status = 'CONFIRMED' AND end_time > ? AND start_time >= ?
+			ORDER BY start_time, id""";
+
+	private static final String CHANGED_BOOKINGS = """
+			SELECT id, room_id, title, organizer, description, start_time, end_time, status, created_at
+			FROM room_booking
+			WHERE %s = ? AND change_xid >= ? AND end_time > ? AND start_time >= ?
+			ORDER BY start_time, id""";
+
+	private static final String BOOKING_VERSION = """
+			SELECT count(*), coalesce(max(change_xid), 0)
+			FROM room_booking
+			WHERE %s = ? AND status = 'CONFIRMED' AND end_time > ? AND start_time >= ?""";
+
+	private static final String SERIES_VERSION = """
+			SELECT count(*), coalesce(max(change_xid), 0)
+			FROM recurring_booking
+			WHERE room_id IN (SELECT id FROM meeting_room WHERE %s = ?) AND until_date >= ?""";
+
+	private final MeetingRoomRepository roomRepository;
+	private final RecurringBookingRepository recurringRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 订阅范围：单个会议室或整个楼宇
+	 */
+	public record FeedScope(String key, String name, String bookingColumn, String roomColumn, Long id,
+							Map<Long, MeetingRoom> rooms) {
+	}
+
+	public Optional<FeedScope> roomScope(Long roomId) {
+		return roomRepository.findAll().stream()
+				.filter(room -> room.getId().equals(roomId))
+				.findFirst()
+				.map(room -> new FeedScope("room-" + roomId, room.getName(), "room_id", "id", roomId,
+						Map.of(roomId, room)));
+	}
+
+	public FeedScope buildingScope(Building building) {
+		Map<Long, MeetingRoom> rooms = roomRepository.findByBuildingId(building.getId()).stream()
+				.collect(Collectors.toMap(MeetingRoom::getId, Function.identity()));
+		return new FeedScope("building-" + building.getCode(), building.getName(), "building_id", "building_id",
+				building.getId(), rooms);
+	}
+
+	/**
+	 * 当前同步令牌，必须在读取数据之前获取
+	 */
+	public long currentSyncToken() {
+		return jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+	}
+
+	/**
+	 * 强 ETag：窗口内确认预订的数量和最大 change_xid，加上系列的同样信息。
+	 * 新增、取消都会改变数量，晚提交的小事务ID也会因数量变化被发现
+	 */
+	public String etag(FeedScope scope, LocalDateTime from, Long since) {
+		String bookings = jdbcTemplate.queryForObject(String.format(BOOKING_VERSION, scope.bookingColumn()),
+				(rs, rowNum) -> rs.getLong(1) + "." + rs.getLong(2),
+				scope.id(), from, from.minus(RoomBooking.MAX_DURATION));
+		String series = jdbcTemplate.queryForObject(String.format(SERIES_VERSION, scope.roomColumn()),
+				(rs, rowNum) -> rs.getLong(1) + "." + rs.getLong(2),
+				scope.id(), from.toLocalDate());
+		return String.format("\"%s-%s-%s-%s%s\"", scope.key(), from.toLocalDate(), bookings, series,
+				since == null ? "" : "-" + since);
+	}
+
+	/**
+	 * 写出日历，since 为空时输出窗口内全部有效预订，否则只输出令牌之后的变更
+	 * <p>
+	 * 必须与 {@link #currentSyncToken()}、{@link #etag} 读同一个库（主库），调用方负责固定到主库
+	 */
+	@Transactional(readOnly = true)
+	public void writeFeed(FeedScope scope, LocalDateTime from, Long since, OutputStream out) {
+		IcsWriter ics = new IcsWriter(out);
+		try {
+			ics.property("BEGIN", "VCALENDAR");
+			ics.property("VERSION", "2.0");
+			ics.property("PRODID", "-//tangtian//meeting-schedule//CN");
+			ics.property("CALSCALE", "GREGORIAN");
+			ics.property("METHOD", "PUBLISH");
+			ics.text("X-WR-CALNAME", scope.name());
+			ics.text("X-WR-TIMEZONE", ZoneId.systemDefault().getId());
+
+			writeBookings(ics, scope, from, since);
+
+			List<RecurringBooking> series = since == null
+					? recurringRepository.findActiveForRooms(scope.rooms().keySet(), from.toLocalDate())
+					: recurringRepository.findChangedForRooms(scope.rooms().keySet(), since, from.toLocalDate());
+			for (RecurringBooking s : series) {
+				writeSeries(ics, s, scope.rooms().get(s.getRoom().getId()));
+			}
+
+			ics.property("END", "VCALENDAR");
+			ics.flush();
+		} catch (IOException e) {
+			// 客户端断开
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeBookings(IcsWriter ics, FeedScope scope, LocalDateTime from, Long since) {
+		String sql = String.format(since == null ? FULL_BOOKINGS : CHANGED_BOOKINGS, scope.bookingColumn());
+		Timestamp fromTs = Timestamp.valueOf(from);
+		Timestamp lowerStart = Timestamp.valueOf(from.minus(RoomBooking.MAX_DURATION));
+
+		// 只读事务内设置 fetchSize，驱动使用游标分批取数，不会把结果集一次读入内存
+		jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(sql);
+			ps.setFetchSize(FETCH_SIZE);
+			int i = 1;
+			ps.setLong(i++, scope.id());
+			if (since != null) {
+				ps.setLong(i++, since);
+			}
+			ps.setTimestamp(i++, fromTs);
+			ps.setTimestamp(i, lowerStart);
+			return ps;
+		}, (RowCallbackHandler) rs -> {
+			try {
+				MeetingRoom room = scope.rooms().get(rs.getLong("room_id"));
+				ics.property("BEGIN", "VEVENT");
+				ics.property("UID", "booking-" + rs.getLong("id") + UID_DOMAIN);
+				ics.utcTime("DTSTAMP", rs.getTimestamp("created_at").toLocalDateTime());
+				ics.localTime("DTSTART", rs.getTimestamp("start_time").toLocalDateTime());
+				ics.localTime("DTEND", rs.getTimestamp("end_time").toLocalDateTime());
+				ics.text("SUMMARY", rs.getString("title"));
+				ics.text("LOCATION", location(room));
+				ics.text("DESCRIPTION", description(rs.getString("organizer"), rs.getString("description")));
+				writeStatus(ics, "CONFIRMED".equals(rs.getString("status")));
+				ics.property("END", "VEVENT");
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	static void writeSeries(IcsWriter ics, RecurringBooking series, MeetingRoom room) throws IOException {
+		String uid = "recurring-" + series.getId() + UID_DOMAIN;
+		LocalDate firstDate = firstOccurrence(series);
+		boolean active = "ACTIVE".equals(series.getStatus());
+
+		ics.property("BEGIN", "VEVENT");
+		ics.property("UID", uid);
+		ics.utcTime("DTSTAMP", series.getCreatedAt());
+		ics.localTime("DTSTART", firstDate.atTime(series.getStartTime()));
+		ics.localTime("DTEND", firstDate.atTime(series.getEndTime()));
+		ics.property("RRULE", rrule(series));
+		for (OccurrenceOverride override : series.getOverrides()) {
+			// 只排除取消的发生；改期的发生由下面带 RECURRENCE-ID 的事件替换，同时写 EXDATE 会被客户端一并删除
+			if (override.isCancelled()) {
+				ics.localTime("EXDATE", override.getOccurrenceDate().atTime(series.getStartTime()));
+			}
+		}
+		ics.text("SUMMARY", series.getTitle());
+		ics.text("LOCATION", location(room));
+		ics.text("DESCRIPTION", description(series.getOrganizer(), series.getDescription()));
+		writeStatus(ics, active);
+		ics.property("END", "VEVENT");
+
+		if (!active) {
+			return;
+		}
+		for (OccurrenceOverride override : series.getOverrides()) {
+			if (override.isCancelled() || override.getNewStartTime() == null) {
+				continue;
+			}
+			ics.property("BEGIN", "VEVENT");
+			ics.property("UID", uid);
+			ics.utcTime("DTSTAMP", series.getCreatedAt());
+			ics.localTime("RECURRENCE-ID", override.getOccurrenceDate().atTime(series.getStartTime()));
+			ics.localTime("DTSTART", override.getNewStartTime());
+			ics.localTime("DTEND", override.getNewEndTime());
+			ics.text("SUMMARY", series.getTitle());
+			ics.text("LOCATION", location(room));
+			writeStatus(ics, true);
+			ics.property("END", "VEVENT");
+		}
+	}
+
+	/**
+	 * 取消的事件带 STATUS:CANCELLED 和递增的 SEQUENCE，客户端据此删除本地副本
+	 */
+	private static void writeStatus(IcsWriter ics, boolean confirmed) throws IOException {
+		ics.property("STATUS", confirmed ? "CONFIRMED" : "CANCELLED");
+		ics.property("SEQUENCE", confirmed ? "0" : "1");
+	}
+
+	static String rrule(RecurringBooking series) {
+		StringBuilder rule = new StringBuilder("FREQ=")
+				.append(series.getFrequency() == RecurrenceFrequency.DAILY ? "DAILY" : "WEEKLY")
+				.append(";INTERVAL=").append(Math.max(1, series.getInterval()));
+		if (series.getFrequency() == RecurrenceFrequency.WEEKLY) {
+			rule.append(";BYDAY=").append(RecurrenceService.daysOfWeek(series).stream()
+					.map(CalendarFeedService::icsDay)
+					.collect(Collectors.joining(",")));
+		}
+		rule.append(";UNTIL=").append(IcsWriter.formatLocal(series.getUntilDate().atTime(series.getEndTime())));
+		return rule.toString();
+	}
+
+	/**
+	 * DTSTART 必须是规则的第一次发生，开始日期不一定是规则中的星期
+	 */
+	private static LocalDate firstOccurrence(RecurringBooking series) {
+		for (LocalDate date = series.getStartDate(); !date.isAfter(series.getUntilDate()); date = date.plusDays(1)) {
+			if (RecurrenceService.occursOn(series, date)) {
+				return date;
+			}
+		}
+		return series.getStartDate();
+	}
+
+	private static String icsDay(DayOfWeek day) {
+		return day.name().substring(0, 2);
+	}
+
+	private static String location(MeetingRoom room) {
+		if (room == null) {
+			return "";
+		}
+		return room.getLocation() == null ? room.getName() : room.getName() + " " + room.getLocation();
+	}
+
+	private static String description(String organizer, String description) {
+		String text = "组织者: " + organizer;
+		return description == null || description.isBlank() ? text : text + "\n" + description;
+	}
+}
@@ -0,0 +1,245 @@
+package top.tangtian.meetingschedule.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.event.BookingsImportedEvent;
+import top.tangtian.meetingschedule.event.RecurringBookingChangedEvent;
+import top.tangtian.meetingschedule.event.RoomCatalogueChangedEvent;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 多实例之间的内存数据失效，基于 PostgreSQL LISTEN/NOTIFY，不需要额外的消息中间件
+ * <p>
+ * 预订、周期预订、会议室目录变更和批量导入在写入的事务提交前执行 pg_notify，
+ * 通知随事务提交才投递、回滚则丢弃，消息带上会议室、日期范围和版本号（写入事务的事务ID，与 change_xid 一致）。
+ * 每个实例用一条独立连接 LISTEN，收到其他实例的消息后在本地重新发布同一个事件，
+ * 区间索引、周期预订、状态快照、会议室目录缓存等监听方按已有逻辑只刷新受影响的部分；
+ * 汇总表等只在提交前执行的监听方不会重复执行。
+ * 每次 LISTEN 成功（包括第一次）后整体刷新一次：启动加载与第一次 LISTEN 之间、以及断线期间的通知都无法补发。
+ *
+ * @author tangtian
+ * @date 2025-12-26 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class ClusterChangeRelay {
+
+	static final String CHANNEL = "meetingschedule_changes";
+
+	// 没有通知时多久检查一次连接是否还活着
+	private static final int POLL_MILLIS = 10_000;
+	private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+	// 版本号取当前事务ID，由数据库填入
+	private static final String NOTIFY = """
+			SELECT pg_notify(?, jsonb_set(?::jsonb, '{version}',
+			       to_jsonb(pg_current_xact_id()::text::bigint))::text)""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final DataSourceProperties dataSourceProperties;
+	private final ObjectMapper objectMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private final BookingIntervalIndex bookingIndex;
+	private final RecurrenceService recurrenceService;
+	private final RoomStatusService roomStatusService;
+
+	// 本实例标识，忽略自己发出的通知
+	private final String nodeId = UUID.randomUUID().toString();
+
+	private volatile boolean running;
+	private volatile Thread listener;
+
+	public enum Kind {
+		BOOKING,
+		RECURRING,
+		CATALOGUE,
+		IMPORT
+	}
+
+	/**
+	 * 通知内容，fromDate / toDate 为受影响的日期范围，version 为写入事务的事务ID
+	 */
+	public record ChangeMessage(
+			String node,
+			Kind kind,
+			Long roomId,
+			LocalDate fromDate,
+			LocalDate toDate,
+			Long version,
+			Long bookingId,
+			LocalDateTime startTime,
+			LocalDateTime endTime,
+			BookingChangeType type,
+			Long recurringBookingId
+	) {
+	}
+
+	// 只在事务内发布的事件才通知，本地重新发布的远程事件不在事务内，不会再次广播
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onBookingChanged(BookingChangedEvent event) {
+		notify(new ChangeMessage(nodeId, Kind.BOOKING, event.roomId(),
+				event.startTime().toLocalDate(), event.endTime().toLocalDate(), null,
+				event.bookingId(), event.startTime(), event.endTime(), event.type(), null));
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onRecurringBookingChanged(RecurringBookingChangedEvent event) {
+		notify(new ChangeMessage(nodeId, Kind.RECURRING, event.roomId(), event.fromDate(), event.toDate(), null,
+				null, null, null, null, event.recurringBookingId()));
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onCatalogueChanged(RoomCatalogueChangedEvent event) {
+		notify(new ChangeMessage(nodeId, Kind.CATALOGUE, event.roomId(), null, null, null,
+				null, null, null, null, null));
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onBookingsImported(BookingsImportedEvent event) {
+		notify(new ChangeMessage(nodeId, Kind.IMPORT, null, event.fromDate(), event.toDate(), null,
+				null, null, null, null, null));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		running = true;
+		Thread thread = new Thread(this::listen, "cluster-change-listener");
+		thread.setDaemon(true);
+		listener = thread;
+		thread.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		Thread thread = listener;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	private void notify(ChangeMessage message) {
+		String payload;
+		try {
+			payload = objectMapper.writeValueAsString(message);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("集群通知序列化失败", e);
+		}
+		jdbcTemplate.query(NOTIFY, (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+	}
+
+	/**
+	 * 监听循环：独立连接直连主库（通知不会复制到只读副本），断线后指数退避重连
+	 */
+	private void listen() {
+		long delay = 1000;
+		while (running) {
+			try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+					dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+				PGConnection pgConnection = connection.unwrap(PGConnection.class);
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + CHANNEL);
+				}
+				log.info("集群变更通知监听已连接 - 频道: {}, 实例: {}", CHANNEL, nodeId);
+				// 之后的变更都会收到通知，之前漏掉的由整体刷新补上
+				resync();
+				delay = 1000;
+
+				while (running) {
+					PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+					if (notifications == null || notifications.length == 0) {
+						// 空闲时探测连接，半开连接不会让 getNotifications 报错
+						try (Statement statement = connection.createStatement()) {
+							statement.execute("SELECT 1");
+						}
+						continue;
+					}
+					for (PGNotification notification : notifications) {
+						apply(notification.getParameter());
+					}
+				}
+			} catch (SQLException e) {
+				if (!running) {
+					return;
+				}
+				log.warn("集群变更通知监听断开，{}ms 后重连", delay, e);
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException interrupted) {
+					return;
+				}
+				delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MILLIS);
+			}
+		}
+	}
+
+	private void apply(String payload) {
+		try {
+			ChangeMessage message = objectMapper.readValue(payload, ChangeMessage.class);
+			if (nodeId.equals(message.node())) {
+				return;
+			}
+			log.debug("收到其他实例的变更 - {}", message);
+
+			switch (message.kind()) {
+				case BOOKING -> eventPublisher.publishEvent(new BookingChangedEvent(message.bookingId(),
+						message.roomId(), message.startTime(), message.endTime(), message.type()));
+				case RECURRING -> eventPublisher.publishEvent(new RecurringBookingChangedEvent(
+						message.recurringBookingId(), message.roomId(), message.fromDate(), message.toDate()));
+				case CATALOGUE -> eventPublisher.publishEvent(new RoomCatalogueChangedEvent(message.roomId()));
+				case IMPORT -> {
+					bookingIndex.load();
+					roomStatusService.invalidate(message.fromDate(), message.toDate());
+					// 提醒时间轮等监听方自行补充，本地重新发布的事件不在事务内，不会再次广播
+					eventPublisher.publishEvent(new BookingsImportedEvent(message.fromDate(), message.toDate()));
+				}
+			}
+		} catch (Exception e) {
+			// 单条消息处理失败不影响后续通知，最坏情况由快照过期兜底
+			log.error("处理集群变更通知失败 - {}", payload, e);
+		}
+	}
+
+	/**
+	 * 未监听期间的变更无法补发，LISTEN 成功后整体刷新：区间索引、周期预订、会议室目录和全部状态快照
+	 */
+	private void resync() {
+		try {
+			bookingIndex.reload();
+			recurrenceService.load();
+			eventPublisher.publishEvent(new RoomCatalogueChangedEvent(null));
+			// 目录监听方也会丢弃快照，这里显式丢弃，不依赖目录事件的处理方式
+			roomStatusService.invalidateAll();
+			log.info("集群变更通知已监听，内存数据已整体刷新");
+		} catch (Exception e) {
+			log.error("集群变更通知重连后刷新失败", e);
+		}
+	}
+}
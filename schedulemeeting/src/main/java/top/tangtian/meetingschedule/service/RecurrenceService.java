@@ -0,0 +1,518 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.tangtian.meetingschedule.dto.BookingResponse;
+import top.tangtian.meetingschedule.dto.OccurrenceMoveRequest;
+import top.tangtian.meetingschedule.dto.RecurringBookingRequest;
+import top.tangtian.meetingschedule.dto.RecurringOccurrence;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.OccurrenceOverride;
+import top.tangtian.meetingschedule.entity.RecurrenceFrequency;
+import top.tangtian.meetingschedule.entity.RecurringBooking;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.RecurringBookingChangedEvent;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+import top.tangtian.meetingschedule.repository.RecurringBookingRepository;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 周期预订
+ * <p>
+ * 每个系列只存一行规则，发生只在查询窗口内按需展开，取消或改期的单次发生记录为例外。
+ * 有效系列按会议室缓存在内存中，冲突检查和状态查询不需要额外的数据库往返。
+ * 内存中的系列在对方提交后才刷新，写入前持有会议室锁（与 V6 跨分区触发器同一把锁）并按数据库中的数据复查，
+ * 单次预订与周期预订之间不会因为并发同时成功。
+ *
+ * @author tangtian
+ * @date 2025-12-05 10:30
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurrenceService {
+
+	// 单个系列的最长跨度，避免一次展开过多发生
+	private static final int MAX_SPAN_DAYS = 366 * 2;
+
+	// 与 room_booking_check_cross_partition 触发器使用同一把事务级咨询锁
+	private static final String LOCK_ROOM = "SELECT pg_advisory_xact_lock(hashtext('room_booking'), ?)";
+
+	// 与排他约束 room_booking_no_overlap 相同的 SQLSTATE，调用方按同一种重叠处理
+	private static final String EXCLUSION_VIOLATION = "23P01";
+
+	private final MeetingRoomRepository roomRepository;
+	private final RoomBookingRepository bookingRepository;
+	private final RecurringBookingRepository recurringRepository;
+	private final SlotHoldRegistry slotHolds;
+	private final ApplicationEventPublisher eventPublisher;
+	private final JdbcTemplate jdbcTemplate;
+
+	// 会议室ID -> 有效的周期预订
+	private final Map<Long, List<RecurringBooking>> activeByRoom = new ConcurrentHashMap<>();
+
+	private volatile boolean ready = false;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		List<RecurringBooking> active = recurringRepository.findActiveUntilAfter(LocalDate.now());
+		Map<Long, List<RecurringBooking>> byRoom = active.stream()
+				.collect(Collectors.groupingBy(series -> series.getRoom().getId()));
+		// 重新加载时移除已没有有效系列的会议室，其余直接覆盖，不会出现短暂为空的窗口
+		activeByRoom.keySet().retainAll(byRoom.keySet());
+		activeByRoom.putAll(byRoom);
+		ready = true;
+		log.info("周期预订加载完成 - 系列: {}", active.size());
+	}
+
+	// 先于会议室状态快照等监听方刷新，它们重算时读取的是这里的内存数据
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRecurringBookingChanged(RecurringBookingChangedEvent event) {
+		reloadRoom(event.roomId());
+	}
+
+	/**
+	 * 展开会议室在 [from, to) 内的所有发生
+	 */
+	public List<RecurringOccurrence> occurrences(Long roomId, LocalDateTime from, LocalDateTime to) {
+		List<RecurringOccurrence> result = new ArrayList<>();
+		for (RecurringBooking series : seriesForRoom(roomId, from)) {
+			result.addAll(expand(series, from, to));
+		}
+		result.sort(Comparator.comparing(RecurringOccurrence::startTime));
+		return result;
+	}
+
+	/**
+	 * 展开所有会议室在 [from, to) 内的发生
+	 */
+	public List<RecurringOccurrence> occurrences(LocalDateTime from, LocalDateTime to) {
+		Set<Long> roomIds = ready
+				? activeByRoom.keySet()
+				: recurringRepository.findActiveUntilAfter(from.toLocalDate()).stream()
+						.map(series -> series.getRoom().getId())
+						.collect(Collectors.toSet());
+
+		List<RecurringOccurrence> result = new ArrayList<>();
+		for (Long roomId : roomIds) {
+			result.addAll(occurrences(roomId, from, to));
+		}
+		result.sort(Comparator.comparing(RecurringOccurrence::startTime));
+		return result;
+	}
+
+	/**
+	 * 展开指定会议室在 [from, to) 内的发生
+	 */
+	public List<RecurringOccurrence> occurrences(Collection<Long> roomIds, LocalDateTime from, LocalDateTime to) {
+		List<RecurringOccurrence> result = new ArrayList<>();
+		for (Long roomId : roomIds) {
+			result.addAll(occurrences(roomId, from, to));
+		}
+		result.sort(Comparator.comparing(RecurringOccurrence::startTime));
+		return result;
+	}
+
+	public boolean hasConflict(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+		return occurrences(roomId, startTime, endTime).stream()
+				.anyMatch(occurrence -> occurrence.overlaps(startTime, endTime));
+	}
+
+	/**
+	 * 写入单次预订前在同一事务内调用：按会议室ID顺序加锁，再按库中已提交的系列复查，
+	 * 冲突时抛出与排他约束相同 SQLSTATE 的异常。锁持有到事务结束，之后提交的系列也会在加锁后看到这些预订
+	 */
+	public void checkPersistedConflicts(Collection<RoomBooking> bookings) {
+		Map<Long, List<RoomBooking>> byRoom = bookings.stream()
+				.filter(booking -> "CONFIRMED".equals(booking.getStatus()))
+				.collect(Collectors.groupingBy(booking -> booking.getRoom().getId(), TreeMap::new, Collectors.toList()));
+		for (Map.Entry<Long, List<RoomBooking>> entry : byRoom.entrySet()) {
+			Long roomId = entry.getKey();
+			lockRoom(roomId);
+			LocalDateTime earliest = entry.getValue().stream()
+					.map(RoomBooking::getStartTime).min(LocalDateTime::compareTo).orElseThrow();
+			List<RecurringBooking> series = recurringRepository.findActiveUntilAfterForRoom(roomId,
+					earliest.toLocalDate());
+			for (RoomBooking booking : entry.getValue()) {
+				boolean conflict = series.stream()
+						.flatMap(s -> expand(s, booking.getStartTime(), booking.getEndTime()).stream())
+						.anyMatch(o -> o.overlaps(booking.getStartTime(), booking.getEndTime()));
+				if (conflict) {
+					String message = "与周期预订冲突: 会议室 " + roomId + ", " + booking.getStartTime();
+					throw new DataIntegrityViolationException(message, new SQLException(message, EXCLUSION_VIOLATION));
+				}
+			}
+		}
+	}
+
+	@Transactional
+	public BookingResponse createRecurringBooking(RecurringBookingRequest request) {
+		log.info("创建周期预订: {}", request);
+
+		String error = validate(request);
+		if (error != null) {
+			return failure(error);
+		}
+
+		MeetingRoom room = roomRepository.findByName(request.getRoomName())
+				.orElseThrow(() -> new RuntimeException("会议室不存在: " + request.getRoomName()));
+
+		if (request.getAttendees() != null && request.getAttendees() > room.getCapacity()) {
+			return failure(String.format("会议室容量不足，最多容纳%d人", room.getCapacity()));
+		}
+
+		RecurringBooking series = RecurringBooking.builder()
+				.room(room)
+				.title(request.getTitle())
+				.organizer(request.getOrganizer())
+				.attendees(request.getAttendees())
+				.description(request.getDescription())
+				.frequency(request.getFrequency())
+				.interval(request.getInterval() == null ? 1 : request.getInterval())
+				.byDay(request.getFrequency() == RecurrenceFrequency.WEEKLY
+						? request.getDaysOfWeek().stream().map(DayOfWeek::name).collect(Collectors.joining(","))
+						: null)
+				.startDate(request.getStartDate())
+				.untilDate(request.getUntilDate())
+				.startTime(request.getStartTime())
+				.endTime(request.getEndTime())
+				.status("ACTIVE")
+				.build();
+
+		// 展开整个系列，与已有的单次预订和其他系列逐一比对
+		LocalDateTime spanStart = series.getStartDate().atStartOfDay();
+		LocalDateTime spanEnd = series.getUntilDate().plusDays(1).atStartOfDay();
+		List<RecurringOccurrence> planned = expand(series, spanStart, spanEnd);
+		if (planned.isEmpty()) {
+			return failure("该规则在指定日期范围内没有任何发生");
+		}
+
+		// 加锁后读库：并发提交的单次预订和系列都已可见，内存中的系列可能还没刷新
+		lockRoom(room.getId());
+		NavigableMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+		for (RoomBooking booking : bookingRepository.findConfirmedOverlappingInRoom(room.getId(), spanStart, spanEnd)) {
+			busy.merge(booking.getStartTime(), booking.getEndTime(), (a, b) -> a.isAfter(b) ? a : b);
+		}
+		for (RecurringOccurrence occurrence : persistedOccurrences(room.getId(), spanStart, spanEnd)) {
+			busy.merge(occurrence.startTime(), occurrence.endTime(), (a, b) -> a.isAfter(b) ? a : b);
+		}
+
+		for (RecurringOccurrence occurrence : planned) {
+			if (occurrence.startTime().isBefore(LocalDateTime.now())) {
+				return failure("不能预订过去的时间: " + occurrence.occurrenceDate());
+			}
+			Map.Entry<LocalDateTime, LocalDateTime> previous = busy.lowerEntry(occurrence.endTime());
+			if (previous != null && previous.getValue().isAfter(occurrence.startTime())) {
+				return failure("该时间段已被预订: " + occurrence.occurrenceDate());
+			}
+			if (slotHolds.conflicts(room.getId(), occurrence.startTime(), occurrence.endTime(), null)) {
+				return failure("该时间段正被其他用户暂时保留: " + occurrence.occurrenceDate());
+			}
+		}
+
+		series = recurringRepository.save(series);
+		publishChanged(series, series.getStartDate(), series.getUntilDate());
+
+		return BookingResponse.builder()
+				.success(true)
+				.message(String.format("周期预订成功，共%d次", planned.size()))
+				.bookingId(series.getId())
+				.build();
+	}
+
+	@Transactional
+	public BookingResponse cancelOccurrence(Long seriesId, LocalDate occurrenceDate) {
+		Optional<RecurringBooking> found = findActive(seriesId);
+		if (found.isEmpty()) {
+			return failure("周期预订不存在: " + seriesId);
+		}
+		RecurringBooking series = found.get();
+		if (!occursOn(series, occurrenceDate)) {
+			return failure("该日期没有会议: " + occurrenceDate);
+		}
+		// 已经发生的会议保留在使用率汇总中，与单次预订"已结束的预订不能取消"一致
+		if (occurrenceDate.isBefore(LocalDate.now())) {
+			return failure("已结束的会议不能取消");
+		}
+
+		putOverride(series, OccurrenceOverride.builder()
+				.occurrenceDate(occurrenceDate)
+				.cancelled(true)
+				.build());
+		recurringRepository.save(series);
+		publishChanged(series, occurrenceDate, occurrenceDate);
+
+		return BookingResponse.builder()
+				.success(true)
+				.message("已取消 " + occurrenceDate + " 的会议")
+				.bookingId(seriesId)
+				.build();
+	}
+
+	@Transactional
+	public BookingResponse moveOccurrence(Long seriesId, LocalDate occurrenceDate, OccurrenceMoveRequest request) {
+		Optional<RecurringBooking> found = findActive(seriesId);
+		if (found.isEmpty()) {
+			return failure("周期预订不存在: " + seriesId);
+		}
+		RecurringBooking series = found.get();
+		if (!occursOn(series, occurrenceDate)) {
+			return failure("该日期没有会议: " + occurrenceDate);
+		}
+		if (occurrenceDate.isBefore(LocalDate.now())) {
+			return failure("已结束的会议不能改期");
+		}
+
+		LocalDateTime start = request.getStartTime();
+		LocalDateTime end = request.getEndTime();
+		if (start == null || end == null || !start.isBefore(end)) {
+			return failure("开始时间必须早于结束时间");
+		}
+		if (start.isBefore(LocalDateTime.now())) {
+			return failure("不能预订过去的时间");
+		}
+
+		Long roomId = series.getRoom().getId();
+		lockRoom(roomId);
+		boolean bookingConflict = !bookingRepository.findConflictingBookings(roomId, start, end).isEmpty();
+		boolean seriesConflict = persistedOccurrences(roomId, start, end).stream()
+				.filter(o -> !(o.recurringBookingId().equals(seriesId) && o.occurrenceDate().equals(occurrenceDate)))
+				.anyMatch(o -> o.overlaps(start, end));
+		if (bookingConflict || seriesConflict) {
+			return failure("该时间段已被预订");
+		}
+
+		putOverride(series, OccurrenceOverride.builder()
+				.occurrenceDate(occurrenceDate)
+				.cancelled(false)
+				.newStartTime(start)
+				.newEndTime(end)
+				.build());
+		recurringRepository.save(series);
+
+		LocalDate from = occurrenceDate.isBefore(start.toLocalDate()) ? occurrenceDate : start.toLocalDate();
+		LocalDate to = occurrenceDate.isAfter(end.toLocalDate()) ? occurrenceDate : end.toLocalDate();
+		publishChanged(series, from, to);
+
+		return BookingResponse.builder()
+				.success(true)
+				.message("已将 " + occurrenceDate + " 的会议改期")
+				.bookingId(seriesId)
+				.build();
+	}
+
+	@Transactional
+	public BookingResponse cancelSeries(Long seriesId) {
+		Optional<RecurringBooking> found = findActive(seriesId);
+		if (found.isEmpty()) {
+			return failure("周期预订不存在: " + seriesId);
+		}
+		RecurringBooking series = found.get();
+		series.setStatus("CANCELLED");
+		recurringRepository.save(series);
+		// 已经发生的会议保留在使用率汇总中，只刷新今天及以后的日期
+		LocalDate from = series.getStartDate().isAfter(LocalDate.now()) ? series.getStartDate() : LocalDate.now();
+		publishChanged(series, from, series.getUntilDate().isBefore(from) ? from : series.getUntilDate());
+
+		return BookingResponse.builder()
+				.success(true)
+				.message("周期预订已取消")
+				.bookingId(seriesId)
+				.build();
+	}
+
+	/**
+	 * 展开系列在 [from, to) 内的发生，已应用取消和改期例外
+	 */
+	public static List<RecurringOccurrence> expand(RecurringBooking series, LocalDateTime from, LocalDateTime to) {
+		Map<LocalDate, OccurrenceOverride> overrides = series.getOverrides().stream()
+				.collect(Collectors.toMap(OccurrenceOverride::getOccurrenceDate, o -> o, (a, b) -> b));
+		Long roomId = series.getRoom().getId();
+		List<RecurringOccurrence> result = new ArrayList<>();
+
+		// 只遍历窗口覆盖的日期
+		LocalDate first = max(series.getStartDate(), from.toLocalDate());
+		LocalDate last = min(series.getUntilDate(), to.toLocalDate());
+		for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+			if (overrides.containsKey(date) || !occursOn(series, date)) {
+				continue;
+			}
+			LocalDateTime start = date.atTime(series.getStartTime());
+			LocalDateTime end = date.atTime(series.getEndTime());
+			if (start.isBefore(to) && end.isAfter(from)) {
+				result.add(occurrence(series, roomId, date, start, end));
+			}
+		}
+
+		// 改期的发生可能从窗口外移入，单独判断
+		for (OccurrenceOverride override : overrides.values()) {
+			if (override.isCancelled() || !occursOn(series, override.getOccurrenceDate())) {
+				continue;
+			}
+			if (override.getNewStartTime().isBefore(to) && override.getNewEndTime().isAfter(from)) {
+				result.add(occurrence(series, roomId, override.getOccurrenceDate(),
+						override.getNewStartTime(), override.getNewEndTime()));
+			}
+		}
+
+		result.sort(Comparator.comparing(RecurringOccurrence::startTime));
+		return result;
+	}
+
+	/**
+	 * 按规则判断系列在某天是否发生（不考虑例外）
+	 */
+	public static boolean occursOn(RecurringBooking series, LocalDate date) {
+		if (date.isBefore(series.getStartDate()) || date.isAfter(series.getUntilDate())) {
+			return false;
+		}
+
+		int interval = Math.max(1, series.getInterval());
+		if (series.getFrequency() == RecurrenceFrequency.DAILY) {
+			return ChronoUnit.DAYS.between(series.getStartDate(), date) % interval == 0;
+		}
+
+		if (!daysOfWeek(series).contains(date.getDayOfWeek())) {
+			return false;
+		}
+		LocalDate firstWeek = series.getStartDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		LocalDate week = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		return ChronoUnit.WEEKS.between(firstWeek, week) % interval == 0;
+	}
+
+	public static Set<DayOfWeek> daysOfWeek(RecurringBooking series) {
+		Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+		if (series.getByDay() != null) {
+			for (String day : series.getByDay().split(",")) {
+				if (!day.isBlank()) {
+					days.add(DayOfWeek.valueOf(day.trim()));
+				}
+			}
+		}
+		return days;
+	}
+
+	private List<RecurringBooking> seriesForRoom(Long roomId, LocalDateTime from) {
+		if (ready) {
+			return activeByRoom.getOrDefault(roomId, List.of());
+		}
+		return recurringRepository.findActiveUntilAfterForRoom(roomId, from.toLocalDate());
+	}
+
+	private void lockRoom(Long roomId) {
+		jdbcTemplate.query(LOCK_ROOM, (ResultSetExtractor<Void>) rs -> null, roomId.intValue());
+	}
+
+	/**
+	 * 按库中的有效系列展开，只在持有会议室锁时使用
+	 */
+	private List<RecurringOccurrence> persistedOccurrences(Long roomId, LocalDateTime from, LocalDateTime to) {
+		List<RecurringOccurrence> result = new ArrayList<>();
+		for (RecurringBooking series : recurringRepository.findActiveUntilAfterForRoom(roomId, from.toLocalDate())) {
+			result.addAll(expand(series, from, to));
+		}
+		return result;
+	}
+
+	private void reloadRoom(Long roomId) {
+		List<RecurringBooking> series = recurringRepository.findActiveUntilAfterForRoom(roomId, LocalDate.now());
+		if (series.isEmpty()) {
+			activeByRoom.remove(roomId);
+		} else {
+			activeByRoom.put(roomId, series);
+		}
+	}
+
+	private Optional<RecurringBooking> findActive(Long seriesId) {
+		return recurringRepository.findById(seriesId)
+				.filter(series -> "ACTIVE".equals(series.getStatus()));
+	}
+
+	private void putOverride(RecurringBooking series, OccurrenceOverride override) {
+		series.getOverrides().removeIf(o -> o.getOccurrenceDate().equals(override.getOccurrenceDate()));
+		series.getOverrides().add(override);
+	}
+
+	private void publishChanged(RecurringBooking series, LocalDate from, LocalDate to) {
+		eventPublisher.publishEvent(new RecurringBookingChangedEvent(
+				series.getId(), series.getRoom().getId(), from, to));
+	}
+
+	private String validate(RecurringBookingRequest request) {
+		if (request.getFrequency() == null) {
+			return "请指定重复频率";
+		}
+		if (request.getInterval() != null && request.getInterval() < 1) {
+			return "重复间隔必须大于0";
+		}
+		if (request.getFrequency() == RecurrenceFrequency.WEEKLY
+				&& (request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty())) {
+			return "每周重复需要指定星期";
+		}
+		if (request.getStartDate() == null || request.getUntilDate() == null
+				|| request.getUntilDate().isBefore(request.getStartDate())) {
+			return "结束日期不能早于开始日期";
+		}
+		if (ChronoUnit.DAYS.between(request.getStartDate(), request.getUntilDate()) > MAX_SPAN_DAYS) {
+			return "周期预订跨度不能超过两年";
+		}
+		if (request.getStartTime() == null || request.getEndTime() == null
+				|| !request.getStartTime().isBefore(request.getEndTime())) {
+			return "开始时间必须早于结束时间";
+		}
+		return null;
+	}
+
+	private static RecurringOccurrence occurrence(RecurringBooking series, Long roomId, LocalDate date,
+												  LocalDateTime start, LocalDateTime end) {
+		return new RecurringOccurrence(series.getId(), roomId, date, start, end,
+				series.getTitle(), series.getOrganizer());
+	}
+
+	private static LocalDate max(LocalDate a, LocalDate b) {
+		return a.isAfter(b) ? a : b;
+	}
+
+	private static LocalDate min(LocalDate a, LocalDate b) {
+		return a.isBefore(b) ? a : b;
+	}
+
+	private BookingResponse failure(String message) {
+		return BookingResponse.builder()
+				.success(false)
+				.message(message)
+				.build();
+	}
+}
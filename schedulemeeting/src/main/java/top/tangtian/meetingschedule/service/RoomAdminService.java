@@ -0,0 +1,145 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.tangtian.meetingschedule.config.CacheConfig;
+import top.tangtian.meetingschedule.dto.RoomAdminRequest;
+import top.tangtian.meetingschedule.dto.RoomAdminResponse;
+import top.tangtian.meetingschedule.entity.Building;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.event.RoomCatalogueChangedEvent;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 会议室目录维护。目录查询都走缓存，修改必须经过这里，提交后统一失效缓存
+ *
+ * @author tangtian
+ * @date 2025-12-18 10:20
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAdminService {
+
+	private static final List<String> CATALOGUE_CACHES = List.of(
+			CacheConfig.MEETING_ROOMS, CacheConfig.MEETING_ROOM_BY_NAME, CacheConfig.BUILDINGS);
+
+	private final MeetingRoomRepository roomRepository;
+	private final BuildingService buildingService;
+	private final RoomFilterIndex roomFilterIndex;
+	private final RoomStatusService roomStatusService;
+	private final JdbcTemplate jdbcTemplate;
+	private final CacheManager cacheManager;
+	private final ApplicationEventPublisher eventPublisher;
+
+	@Transactional
+	public RoomAdminResponse createRoom(RoomAdminRequest request) {
+		log.info("Creating room: {}", request);
+		return save(MeetingRoom.builder().build(), request);
+	}
+
+	@Transactional
+	public RoomAdminResponse updateRoom(Long roomId, RoomAdminRequest request) {
+		log.info("Updating room {}: {}", roomId, request);
+		// 不走缓存，修改的必须是受管实体
+		Optional<MeetingRoom> room = roomRepository.findById(roomId);
+		if (room.isEmpty()) {
+			return failure("会议室不存在: " + roomId);
+		}
+		return save(room.get(), request);
+	}
+
+	private RoomAdminResponse save(MeetingRoom room, RoomAdminRequest request) {
+		if (request.getName() == null || request.getName().isBlank()) {
+			return failure("会议室名称不能为空");
+		}
+		if (request.getCapacity() == null || request.getCapacity() <= 0) {
+			return failure("容纳人数必须大于0");
+		}
+
+		String name = request.getName().trim();
+		boolean nameTaken = jdbcTemplate.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM meeting_room WHERE name = ? AND id IS DISTINCT FROM ?)",
+				Boolean.class, name, room.getId());
+		if (nameTaken) {
+			return failure("会议室名称已存在: " + name);
+		}
+
+		Long buildingId = room.getBuildingId();
+		if (request.getBuilding() != null && !request.getBuilding().isBlank()) {
+			Optional<Building> building = buildingService.findByCode(request.getBuilding());
+			if (building.isEmpty()) {
+				return failure("楼宇不存在: " + request.getBuilding());
+			}
+			buildingId = building.get().getId();
+		}
+
+		// 已有预订的楼宇随外键级联更新
+		room.setName(name);
+		room.setCapacity(request.getCapacity());
+		room.setLocation(request.getLocation());
+		room.setFacilities(request.getFacilities());
+		room.setBuildingId(buildingId);
+		MeetingRoom saved = roomRepository.saveAndFlush(room);
+
+		syncFacilities(saved.getId(), request.getFacilities());
+		eventPublisher.publishEvent(new RoomCatalogueChangedEvent(saved.getId()));
+
+		return RoomAdminResponse.builder()
+				.success(true)
+				.message("会议室已保存")
+				.room(saved)
+				.build();
+	}
+
+	/**
+	 * 设施关联表与 facilities 文本保持一致，拆分规则同 V10 迁移
+	 */
+	private void syncFacilities(Long roomId, String facilities) {
+		String[] names = Arrays.stream(facilities == null ? new String[0] : facilities.split("[,，、]"))
+				.map(String::trim)
+				.filter(name -> !name.isEmpty())
+				.distinct()
+				.toArray(String[]::new);
+
+		jdbcTemplate.update("DELETE FROM meeting_room_facility WHERE room_id = ?", roomId);
+		for (String name : names) {
+			jdbcTemplate.update("INSERT INTO facility (name) VALUES (?) ON CONFLICT (name) DO NOTHING", name);
+			jdbcTemplate.update("INSERT INTO meeting_room_facility (room_id, facility_id) " +
+					"SELECT ?, id FROM facility WHERE name = ? ON CONFLICT DO NOTHING", roomId, name);
+		}
+	}
+
+	/**
+	 * 提交后才失效缓存，避免其他请求在提交前把旧数据重新放回缓存
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCatalogueChanged(RoomCatalogueChangedEvent event) {
+		CATALOGUE_CACHES.stream()
+				.map(cacheManager::getCache)
+				.filter(Objects::nonNull)
+				.forEach(Cache::clear);
+		roomFilterIndex.refresh();
+		roomStatusService.invalidateAll();
+		log.info("会议室目录已变更，缓存已清空 - 会议室: {}", event.roomId());
+	}
+
+	private static RoomAdminResponse failure(String message) {
+		return RoomAdminResponse.builder()
+				.success(false)
+				.message(message)
+				.build();
+	}
+}
@@ -0,0 +1,417 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import top.tangtian.meetingschedule.dto.AllocationRequest;
+import top.tangtian.meetingschedule.dto.AllocationResponse;
+import top.tangtian.meetingschedule.dto.BatchBookingRequest;
+import top.tangtian.meetingschedule.dto.BatchBookingResponse;
+import top.tangtian.meetingschedule.dto.BookingRequest;
+import top.tangtian.meetingschedule.dto.MeetingAssignment;
+import top.tangtian.meetingschedule.dto.MeetingDemand;
+import top.tangtian.meetingschedule.dto.RecurringOccurrence;
+import top.tangtian.meetingschedule.entity.Building;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 批量会议的会议室分配求解器
+ * <p>
+ * 时间窗口互不重叠的会议之间不会争用会议室，先按窗口把需求切分成互相独立的分组，
+ * 各分组在 fork-join 公共池上并行求解。分组内按"最难安排优先"的顺序贪心：
+ * 候选会议室按容量从小到大尝试（best-fit，把大会议厅留给真正需要的会议），
+ * 在会议室的空闲区间中取窗口内最早能放下的时间。超过时间预算的会议标记为未分配。
+ * 候选会议室由 {@link RoomFilterIndex} 按楼宇、人数和设施筛选，与状态查询和 findRooms 的规则一致。
+ * 单个会议的窗口和整批的时间跨度都有上限，占用区间只加载一次，各分组只取自己窗口内的部分。
+ *
+ * @author tangtian
+ * @date 2025-12-08 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAllocationSolver {
+
+	private static final int MAX_MEETINGS = 2000;
+
+	// 单个会议的时间窗口上限
+	private static final int MAX_WINDOW_DAYS = 31;
+
+	// 整批会议从最早窗口开始到最晚窗口结束的跨度上限
+	private static final int MAX_SPAN_DAYS = 92;
+
+	// 开始时间按5分钟对齐
+	private static final int ALIGN_MINUTES = 5;
+
+	private final RoomFilterIndex roomFilterIndex;
+	private final BuildingService buildingService;
+	private final RoomBookingRepository bookingRepository;
+	private final RecurrenceService recurrenceService;
+	private final BatchBookingService batchBookingService;
+
+	public AllocationResponse solve(AllocationRequest request) {
+		long started = System.currentTimeMillis();
+		List<MeetingDemand> demands = request.getMeetings() == null ? List.of() : request.getMeetings();
+		long deadline = started + Math.max(1, request.getTimeBudgetMillis());
+		log.info("会议室分配 - 会议数: {}, 时间预算: {}ms", demands.size(), request.getTimeBudgetMillis());
+
+		MeetingAssignment[] results = new MeetingAssignment[demands.size()];
+		Long buildingId = null;
+		if (request.getBuilding() != null && !request.getBuilding().isBlank()) {
+			Optional<Building> building = buildingService.findByCode(request.getBuilding());
+			if (building.isEmpty()) {
+				for (int i = 0; i < demands.size(); i++) {
+					results[i] = unassigned(i, demands.get(i), "楼宇不存在: " + request.getBuilding());
+				}
+				return AllocationResponse.builder()
+						.requested(demands.size())
+						.assignments(Arrays.asList(results))
+						.elapsedMillis(System.currentTimeMillis() - started)
+						.build();
+			}
+			buildingId = building.get().getId();
+		}
+		Long scope = buildingId;
+
+		List<Integer> valid = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		Set<String> knownFacilities = roomFilterIndex.facilityNames();
+		for (int i = 0; i < demands.size(); i++) {
+			String error = i < MAX_MEETINGS
+					? validate(demands.get(i), now, knownFacilities)
+					: "超过单次分配上限" + MAX_MEETINGS + "个会议";
+			if (error != null) {
+				results[i] = unassigned(i, demands.get(i), error);
+			} else {
+				valid.add(i);
+			}
+		}
+		valid = limitSpan(demands, valid, now, results);
+
+		Map<Long, List<Busy>> busyByRoom = loadBusy(demands, valid, scope, now);
+
+		// 按窗口切分为互不相交的分组，分组间并行求解（parallelStream 使用 fork-join 公共池）
+		List<List<Integer>> groups = splitIndependentGroups(demands, valid, now);
+		groups.parallelStream().forEach(group ->
+				solveGroup(group, demands, scope, busyByRoom, now, deadline, results));
+
+		boolean timedOut = System.currentTimeMillis() > deadline;
+		List<MeetingAssignment> assignments = Arrays.asList(results);
+		int assigned = (int) assignments.stream().filter(MeetingAssignment::isAssigned).count();
+
+		BatchBookingResponse booking = null;
+		if (request.isCommit() && assigned > 0) {
+			booking = commit(demands, assignments, request);
+		}
+
+		long elapsed = System.currentTimeMillis() - started;
+		log.info("会议室分配完成 - 分组: {}, 已分配: {}/{}, 耗时: {}ms",
+				groups.size(), assigned, demands.size(), elapsed);
+
+		return AllocationResponse.builder()
+				.requested(demands.size())
+				.assigned(assigned)
+				.timedOut(timedOut)
+				.elapsedMillis(elapsed)
+				.assignments(assignments)
+				.booking(booking)
+				.build();
+	}
+
+	private void solveGroup(List<Integer> group, List<MeetingDemand> demands, Long buildingId,
+							Map<Long, List<Busy>> sharedBusy, LocalDateTime now, long deadline,
+							MeetingAssignment[] results) {
+		// 分组之间时间不相交，每个分组只复制自己窗口内的占用区间，互不影响
+		LocalDateTime groupStart = group.stream().map(i -> max(demands.get(i).getWindowStart(), now))
+				.min(LocalDateTime::compareTo).orElseThrow();
+		LocalDateTime groupEnd = group.stream().map(i -> demands.get(i).getWindowEnd())
+				.max(LocalDateTime::compareTo).orElseThrow();
+		Map<Long, List<Busy>> busy = busyWithin(sharedBusy, groupStart, groupEnd);
+
+		// 最难安排的优先：可移动空间小的、人数多的
+		List<Integer> ordered = new ArrayList<>(group);
+		ordered.sort(Comparator
+				.comparing((Integer i) -> slackMinutes(demands.get(i), now))
+				.thenComparing(i -> -attendees(demands.get(i))));
+
+		for (Integer i : ordered) {
+			MeetingDemand demand = demands.get(i);
+			if (System.currentTimeMillis() > deadline) {
+				results[i] = unassigned(i, demand, "超出时间预算，未分配");
+				continue;
+			}
+
+			Duration duration = Duration.ofMinutes(demand.getDurationMinutes());
+			LocalDateTime windowStart = max(demand.getWindowStart(), now);
+			MeetingAssignment assignment = null;
+
+			// 按容量从小到大返回，最先放下的就是最合适的会议室
+			List<MeetingRoom> rooms = roomFilterIndex.find(buildingId, demand.getAttendees(),
+					demand.getRequiredFacilities());
+			for (MeetingRoom room : rooms) {
+				List<Busy> roomBusy = busy.computeIfAbsent(room.getId(), k -> new ArrayList<>());
+				LocalDateTime start = earliestFit(roomBusy, windowStart, demand.getWindowEnd(), duration);
+				if (start != null) {
+					LocalDateTime end = start.plus(duration);
+					insertSorted(roomBusy, new Busy(start, end));
+					assignment = MeetingAssignment.builder()
+							.index(i)
+							.title(demand.getTitle())
+							.assigned(true)
+							.message("已分配")
+							.roomName(room.getName())
+							.roomCapacity(room.getCapacity())
+							.startTime(start)
+							.endTime(end)
+							.build();
+					break;
+				}
+			}
+
+			results[i] = assignment != null
+					? assignment
+					: unassigned(i, demand, "时间窗口内没有满足人数和设施要求的空闲会议室");
+		}
+	}
+
+	/**
+	 * 在按开始时间排序的占用区间中，找出窗口内最早能放下 duration 的开始时间
+	 */
+	private LocalDateTime earliestFit(List<Busy> busy, LocalDateTime windowStart, LocalDateTime windowEnd,
+									  Duration duration) {
+		LocalDateTime candidate = align(windowStart);
+		for (Busy interval : busy) {
+			if (!interval.endTime().isAfter(candidate)) {
+				continue;
+			}
+			if (!interval.startTime().isBefore(candidate.plus(duration))) {
+				break;
+			}
+			candidate = align(interval.endTime());
+		}
+		return candidate.plus(duration).isAfter(windowEnd) ? null : candidate;
+	}
+
+	/**
+	 * 按窗口扫描，把窗口互相重叠（可能争用同一会议室）的需求归为一组
+	 */
+	private List<List<Integer>> splitIndependentGroups(List<MeetingDemand> demands, List<Integer> valid,
+													   LocalDateTime now) {
+		List<Integer> sorted = new ArrayList<>(valid);
+		sorted.sort(Comparator.comparing(i -> max(demands.get(i).getWindowStart(), now)));
+
+		List<List<Integer>> groups = new ArrayList<>();
+		List<Integer> current = new ArrayList<>();
+		LocalDateTime currentEnd = null;
+		for (Integer i : sorted) {
+			MeetingDemand demand = demands.get(i);
+			if (currentEnd != null && !max(demand.getWindowStart(), now).isBefore(currentEnd)) {
+				groups.add(current);
+				current = new ArrayList<>();
+				currentEnd = null;
+			}
+			current.add(i);
+			currentEnd = currentEnd == null || demand.getWindowEnd().isAfter(currentEnd)
+					? demand.getWindowEnd()
+					: currentEnd;
+		}
+		if (!current.isEmpty()) {
+			groups.add(current);
+		}
+		return groups;
+	}
+
+	/**
+	 * 一次加载所有分组窗口内的占用区间，指定楼宇时只查询该楼宇
+	 */
+	private Map<Long, List<Busy>> loadBusy(List<MeetingDemand> demands, List<Integer> valid, Long buildingId,
+										   LocalDateTime now) {
+		Map<Long, List<Busy>> busyByRoom = new HashMap<>();
+		if (valid.isEmpty()) {
+			return busyByRoom;
+		}
+
+		LocalDateTime from = valid.stream().map(i -> max(demands.get(i).getWindowStart(), now))
+				.min(LocalDateTime::compareTo).orElseThrow();
+		LocalDateTime to = valid.stream().map(i -> demands.get(i).getWindowEnd())
+				.max(LocalDateTime::compareTo).orElseThrow();
+
+		List<RoomBooking> bookings = buildingId == null
+				? bookingRepository.findConfirmedOverlapping(from, to)
+				: bookingRepository.findConfirmedOverlappingInBuilding(buildingId, from, to);
+		List<RecurringOccurrence> occurrences = buildingId == null
+				? recurrenceService.occurrences(from, to)
+				: recurrenceService.occurrences(roomFilterIndex.find(buildingId, null, null).stream()
+						.map(MeetingRoom::getId).toList(), from, to);
+
+		for (RoomBooking booking : bookings) {
+			busyByRoom.computeIfAbsent(booking.getRoom().getId(), k -> new ArrayList<>())
+					.add(new Busy(booking.getStartTime(), booking.getEndTime()));
+		}
+		for (RecurringOccurrence occurrence : occurrences) {
+			busyByRoom.computeIfAbsent(occurrence.roomId(), k -> new ArrayList<>())
+					.add(new Busy(occurrence.startTime(), occurrence.endTime()));
+		}
+		busyByRoom.values().forEach(list -> list.sort(Comparator.comparing(Busy::startTime)));
+		return busyByRoom;
+	}
+
+	/**
+	 * 复制与 [from, to) 相交的占用区间。区间按开始时间排序且不超过 {@link RoomBooking#MAX_DURATION}，
+	 * 二分找到第一个可能相交的位置，只复制分组窗口内的部分
+	 */
+	private static Map<Long, List<Busy>> busyWithin(Map<Long, List<Busy>> busyByRoom, LocalDateTime from, LocalDateTime to) {
+		LocalDateTime earliestStart = from.minus(RoomBooking.MAX_DURATION);
+		Map<Long, List<Busy>> result = new HashMap<>();
+		busyByRoom.forEach((roomId, list) -> {
+			int low = 0;
+			int high = list.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (list.get(mid).startTime().isBefore(earliestStart)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			List<Busy> within = new ArrayList<>();
+			for (int i = low; i < list.size() && list.get(i).startTime().isBefore(to); i++) {
+				if (list.get(i).endTime().isAfter(from)) {
+					within.add(list.get(i));
+				}
+			}
+			if (!within.isEmpty()) {
+				result.put(roomId, within);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 整批会议的时间跨度上限：从最早的窗口开始算起，结束时间超出跨度的会议不参与分配
+	 */
+	private List<Integer> limitSpan(List<MeetingDemand> demands, List<Integer> valid, LocalDateTime now,
+									MeetingAssignment[] results) {
+		if (valid.isEmpty()) {
+			return valid;
+		}
+		LocalDateTime limit = valid.stream().map(i -> max(demands.get(i).getWindowStart(), now))
+				.min(LocalDateTime::compareTo).orElseThrow()
+				.plusDays(MAX_SPAN_DAYS);
+		List<Integer> within = new ArrayList<>();
+		for (Integer i : valid) {
+			if (demands.get(i).getWindowEnd().isAfter(limit)) {
+				results[i] = unassigned(i, demands.get(i),
+						String.format("单次分配的时间跨度不能超过%d天", MAX_SPAN_DAYS));
+			} else {
+				within.add(i);
+			}
+		}
+		return within;
+	}
+
+	private BatchBookingResponse commit(List<MeetingDemand> demands, List<MeetingAssignment> assignments,
+										AllocationRequest request) {
+		List<BookingRequest> bookings = assignments.stream()
+				.filter(MeetingAssignment::isAssigned)
+				.map(assignment -> {
+					MeetingDemand demand = demands.get(assignment.getIndex());
+					return BookingRequest.builder()
+							.roomName(assignment.getRoomName())
+							.title(demand.getTitle())
+							.organizer(demand.getOrganizer())
+							.startTime(assignment.getStartTime())
+							.endTime(assignment.getEndTime())
+							.attendees(demand.getAttendees())
+							.description(demand.getDescription())
+							.build();
+				})
+				.collect(Collectors.toList());
+
+		return batchBookingService.createBookings(BatchBookingRequest.builder()
+				.mode(request.getMode())
+				.bookings(bookings)
+				.build());
+	}
+
+	private String validate(MeetingDemand demand, LocalDateTime now, Set<String> knownFacilities) {
+		if (demand.getWindowStart() == null || demand.getWindowEnd() == null) {
+			return "缺少时间窗口";
+		}
+		if (demand.getDurationMinutes() <= 0) {
+			return "会议时长必须大于0";
+		}
+		LocalDateTime start = max(demand.getWindowStart(), now);
+		if (start.plusMinutes(demand.getDurationMinutes()).isAfter(demand.getWindowEnd())) {
+			return "时间窗口不足以容纳会议时长";
+		}
+		if (start.plusDays(MAX_WINDOW_DAYS).isBefore(demand.getWindowEnd())) {
+			return String.format("时间窗口不能超过%d天", MAX_WINDOW_DAYS);
+		}
+		if (demand.getRequiredFacilities() != null) {
+			List<String> unknown = demand.getRequiredFacilities().stream()
+					.filter(facility -> !knownFacilities.contains(facility.trim()))
+					.toList();
+			if (!unknown.isEmpty()) {
+				return "未知设施: " + String.join("、", unknown);
+			}
+		}
+		return null;
+	}
+
+	private long slackMinutes(MeetingDemand demand, LocalDateTime now) {
+		return Duration.between(max(demand.getWindowStart(), now), demand.getWindowEnd()).toMinutes()
+				- demand.getDurationMinutes();
+	}
+
+	private int attendees(MeetingDemand demand) {
+		return demand.getAttendees() == null ? 0 : demand.getAttendees();
+	}
+
+	private void insertSorted(List<Busy> busy, Busy interval) {
+		int position = 0;
+		while (position < busy.size() && !busy.get(position).startTime().isAfter(interval.startTime())) {
+			position++;
+		}
+		busy.add(position, interval);
+	}
+
+	private static LocalDateTime align(LocalDateTime time) {
+		LocalDateTime truncated = time.truncatedTo(ChronoUnit.MINUTES);
+		int remainder = truncated.getMinute() % ALIGN_MINUTES;
+		if (remainder == 0 && truncated.equals(time)) {
+			return time;
+		}
+		return truncated.plusMinutes(ALIGN_MINUTES - remainder);
+	}
+
+	private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+		return a.isAfter(b) ? a : b;
+	}
+
+	private MeetingAssignment unassigned(int index, MeetingDemand demand, String message) {
+		return MeetingAssignment.builder()
+				.index(index)
+				.title(demand.getTitle())
+				.assigned(false)
+				.message(message)
+				.build();
+	}
+
+	private record Busy(LocalDateTime startTime, LocalDateTime endTime) {}
+}
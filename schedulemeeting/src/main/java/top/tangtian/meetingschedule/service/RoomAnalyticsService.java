@@ -0,0 +1,211 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.tangtian.meetingschedule.dto.UtilisationGroupBy;
+import top.tangtian.meetingschedule.dto.UtilisationResponse;
+import top.tangtian.meetingschedule.dto.UtilisationStat;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 会议室使用率统计，只读取 room_usage_daily / room_usage_hourly 汇总表
+ *
+ * @author tangtian
+ * @date 2025-12-15 11:20
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAnalyticsService {
+
+	// 可用时长按工作时间 09:00-18:00 计算
+	static final int WORK_MINUTES_PER_DAY = 9 * 60;
+
+	static final int MAX_RANGE_DAYS = 3 * 366;
+
+	// 位置形如 "3楼东侧"、"1楼"
+	private static final Pattern FLOOR_PATTERN = Pattern.compile("^\\s*([0-9一二三四五六七八九十]+楼)");
+
+	private static final String WEEKDAY_NAMES = "一二三四五六日";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final MeetingRoomRepository roomRepository;
+
+	/**
+	 * 统计 [from, to] 的使用率，roomName 为空时统计所有会议室
+	 */
+	@Transactional(readOnly = true)
+	public UtilisationResponse utilisation(LocalDate from, LocalDate to, UtilisationGroupBy groupBy, String roomName) {
+		log.info("查询使用率 - {} ~ {}, 维度: {}, 会议室: {}", from, to, groupBy, roomName);
+
+		if (to.isBefore(from)) {
+			return failure("结束日期不能早于开始日期");
+		}
+		long days = ChronoUnit.DAYS.between(from, to) + 1;
+		if (days > MAX_RANGE_DAYS) {
+			return failure("统计范围不能超过三年");
+		}
+
+		List<MeetingRoom> rooms = roomRepository.findAll();
+		Long roomId = null;
+		if (roomName != null && !roomName.isBlank()) {
+			Optional<MeetingRoom> room = rooms.stream().filter(r -> r.getName().equals(roomName)).findFirst();
+			if (room.isEmpty()) {
+				return failure("会议室不存在: " + roomName);
+			}
+			roomId = room.get().getId();
+			rooms = List.of(room.get());
+		}
+
+		UtilisationGroupBy dimension = groupBy == null ? UtilisationGroupBy.ROOM : groupBy;
+		List<UtilisationStat> stats = switch (dimension) {
+			case ROOM -> byRoom(from, to, roomId, rooms, days);
+			case FLOOR -> byFloor(from, to, roomId, rooms, days);
+			case HOUR -> byHour(from, to, roomId, rooms.size(), days);
+			case WEEKDAY -> byWeekday(from, to, roomId, rooms.size());
+		};
+
+		return UtilisationResponse.builder()
+				.success(true)
+				.message("统计完成")
+				.groupBy(dimension)
+				.from(from)
+				.to(to)
+				.stats(stats)
+				.build();
+	}
+
+	private List<UtilisationStat> byRoom(LocalDate from, LocalDate to, Long roomId, List<MeetingRoom> rooms,
+										 long days) {
+		Map<Long, long[]> usage = dailyUsageByRoom(from, to, roomId);
+		return rooms.stream()
+				.sorted(Comparator.comparing(MeetingRoom::getName))
+				.map(room -> {
+					long[] values = usage.getOrDefault(room.getId(), new long[2]);
+					return stat(room.getName(), values[0], days * WORK_MINUTES_PER_DAY, values[1]);
+				})
+				.collect(Collectors.toList());
+	}
+
+	private List<UtilisationStat> byFloor(LocalDate from, LocalDate to, Long roomId, List<MeetingRoom> rooms,
+										  long days) {
+		Map<Long, long[]> usage = dailyUsageByRoom(from, to, roomId);
+		Map<String, List<MeetingRoom>> roomsByFloor = rooms.stream()
+				.collect(Collectors.groupingBy(room -> floorOf(room.getLocation()), TreeMap::new, Collectors.toList()));
+
+		List<UtilisationStat> stats = new ArrayList<>();
+		roomsByFloor.forEach((floor, floorRooms) -> {
+			long booked = 0;
+			long count = 0;
+			for (MeetingRoom room : floorRooms) {
+				long[] values = usage.getOrDefault(room.getId(), new long[2]);
+				booked += values[0];
+				count += values[1];
+			}
+			stats.add(stat(floor, booked, floorRooms.size() * days * WORK_MINUTES_PER_DAY, count));
+		});
+		return stats;
+	}
+
+	private List<UtilisationStat> byHour(LocalDate from, LocalDate to, Long roomId, int roomCount, long days) {
+		Map<Integer, Long> minutesByHour = jdbcTemplate.query(
+						"SELECT usage_hour, sum(booked_minutes) FROM room_usage_hourly " +
+								"WHERE usage_date >= ? AND usage_date <= ? AND (?::int IS NULL OR room_id = ?::int) " +
+								"GROUP BY usage_hour",
+						(rs, i) -> Map.entry(rs.getInt(1), rs.getLong(2)),
+						from, to, roomId, roomId)
+				.stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+		List<UtilisationStat> stats = new ArrayList<>(24);
+		for (int hour = 0; hour < 24; hour++) {
+			stats.add(stat(String.format("%02d:00", hour), minutesByHour.getOrDefault(hour, 0L),
+					roomCount * days * 60, null));
+		}
+		return stats;
+	}
+
+	private List<UtilisationStat> byWeekday(LocalDate from, LocalDate to, Long roomId, int roomCount) {
+		Map<Integer, long[]> usageByDay = jdbcTemplate.query(
+						"SELECT extract(isodow FROM usage_date)::int, sum(booked_minutes), sum(booking_count) " +
+								"FROM room_usage_daily " +
+								"WHERE usage_date >= ? AND usage_date <= ? AND (?::int IS NULL OR room_id = ?::int) " +
+								"GROUP BY 1",
+						(rs, i) -> Map.entry(rs.getInt(1), new long[]{rs.getLong(2), rs.getLong(3)}),
+						from, to, roomId, roomId)
+				.stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+		// 每个星期几在范围内出现的天数
+		Map<DayOfWeek, Long> dayCounts = from.datesUntil(to.plusDays(1))
+				.collect(Collectors.groupingBy(LocalDate::getDayOfWeek, Collectors.counting()));
+
+		List<UtilisationStat> stats = new ArrayList<>(7);
+		for (DayOfWeek day : DayOfWeek.values()) {
+			long[] values = usageByDay.getOrDefault(day.getValue(), new long[2]);
+			stats.add(stat("周" + WEEKDAY_NAMES.charAt(day.getValue() - 1), values[0],
+					roomCount * dayCounts.getOrDefault(day, 0L) * WORK_MINUTES_PER_DAY, values[1]));
+		}
+		return stats;
+	}
+
+	/**
+	 * 会议室ID -> [已预订分钟数, 预订数]
+	 */
+	private Map<Long, long[]> dailyUsageByRoom(LocalDate from, LocalDate to, Long roomId) {
+		return jdbcTemplate.query(
+						"SELECT room_id, sum(booked_minutes), sum(booking_count) FROM room_usage_daily " +
+								"WHERE usage_date >= ? AND usage_date <= ? AND (?::int IS NULL OR room_id = ?::int) " +
+								"GROUP BY room_id",
+						(rs, i) -> Map.entry(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3)}),
+						from, to, roomId, roomId)
+				.stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+	}
+
+	/**
+	 * 从位置中解析楼层，如 "3楼东侧" -> "3楼"，无法解析时返回原位置
+	 */
+	static String floorOf(String location) {
+		if (location == null || location.isBlank()) {
+			return "未知楼层";
+		}
+		Matcher matcher = FLOOR_PATTERN.matcher(location);
+		return matcher.find() ? matcher.group(1) : location.trim();
+	}
+
+	private static UtilisationStat stat(String key, long booked, long available, Long count) {
+		return UtilisationStat.builder()
+				.key(key)
+				.bookedMinutes(booked)
+				.availableMinutes(available)
+				.utilisation(available == 0 ? 0 : Math.round(booked * 10000.0 / available) / 10000.0)
+				.bookingCount(count)
+				.build();
+	}
+
+	private static UtilisationResponse failure(String message) {
+		return UtilisationResponse.builder()
+				.success(false)
+				.message(message)
+				.stats(List.of())
+				.build();
+	}
+}
@@ -0,0 +1,157 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.tangtian.meetingschedule.dto.FreeSlot;
+import top.tangtian.meetingschedule.dto.FreeSlotQuery;
+import top.tangtian.meetingschedule.dto.RecurringOccurrence;
+import top.tangtian.meetingschedule.dto.RoomFreeSlotsResponse;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 多会议室空闲时段查询
+ * <p>
+ * 一次查询取出时间窗口内所有会议室的预订，加上周期预订在窗口内展开的发生，
+ * 再在内存中按会议室分组计算空闲时段，避免逐个会议室查询冲突。
+ *
+ * @author tangtian
+ * @date 2025-12-02 14:20
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAvailabilityService {
+
+	// 单次最多查询的天数，空闲时段按天计算，周期预订也要在整个窗口内展开
+	public static final int MAX_DAYS = 31;
+
+	private final MeetingRoomRepository roomRepository;
+	private final RoomBookingRepository bookingRepository;
+	private final RecurrenceService recurrenceService;
+
+	@Transactional(readOnly = true)
+	public List<RoomFreeSlotsResponse> findFreeSlots(FreeSlotQuery query) {
+		log.info("查询空闲时段: {}", query);
+
+		Long buildingId = query.getBuildingId();
+		List<MeetingRoom> rooms = findRooms(buildingId, query.getMinCapacity());
+		if (rooms.isEmpty()) {
+			return List.of();
+		}
+
+		// 指定楼宇时只查询该楼宇的预订和会议室的周期预订
+		List<RoomBooking> bookings = buildingId == null
+				? bookingRepository.findConfirmedOverlapping(query.getStartTime(), query.getEndTime())
+				: bookingRepository.findConfirmedOverlappingInBuilding(buildingId, query.getStartTime(), query.getEndTime());
+		List<RecurringOccurrence> occurrences = buildingId == null
+				? recurrenceService.occurrences(query.getStartTime(), query.getEndTime())
+				: recurrenceService.occurrences(rooms.stream().map(MeetingRoom::getId).toList(),
+						query.getStartTime(), query.getEndTime());
+
+		// 单次预订和周期预订的发生统一为占用区间，按会议室分组后按开始时间排序
+		Map<Long, List<Busy>> busyByRoom = new HashMap<>();
+		for (RoomBooking booking : bookings) {
+			busyByRoom.computeIfAbsent(booking.getRoom().getId(), k -> new ArrayList<>())
+					.add(new Busy(booking.getStartTime(), booking.getEndTime()));
+		}
+		for (RecurringOccurrence occurrence : occurrences) {
+			busyByRoom.computeIfAbsent(occurrence.roomId(), k -> new ArrayList<>())
+					.add(new Busy(occurrence.startTime(), occurrence.endTime()));
+		}
+		busyByRoom.values().forEach(list -> list.sort(Comparator.comparing(Busy::startTime)));
+
+		return rooms.stream()
+				.map(room -> RoomFreeSlotsResponse.builder()
+						.name(room.getName())
+						.capacity(room.getCapacity())
+						.location(room.getLocation())
+						.facilities(room.getFacilities())
+						.freeSlots(computeFreeSlots(query,
+								busyByRoom.getOrDefault(room.getId(), List.of())))
+						.build())
+				.filter(response -> !response.getFreeSlots().isEmpty())
+				.collect(Collectors.toList());
+	}
+
+	private List<MeetingRoom> findRooms(Long buildingId, Integer minCapacity) {
+		if (buildingId == null) {
+			return minCapacity == null
+					? roomRepository.findAll()
+					: roomRepository.findByCapacityGreaterThanEqual(minCapacity);
+		}
+		return minCapacity == null
+				? roomRepository.findByBuildingId(buildingId)
+				: roomRepository.findByBuildingIdAndCapacityGreaterThanEqual(buildingId, minCapacity);
+	}
+
+	private List<FreeSlot> computeFreeSlots(FreeSlotQuery query, List<Busy> busy) {
+		List<FreeSlot> slots = new ArrayList<>();
+		int next = 0;
+
+		for (LocalDate day = query.getStartTime().toLocalDate();
+			 !day.isAfter(query.getEndTime().toLocalDate());
+			 day = day.plusDays(1)) {
+
+			// 当天可用范围 = 工作时间 ∩ 查询窗口
+			LocalDateTime cursor = max(day.atTime(query.getWorkStart()), query.getStartTime());
+			LocalDateTime dayEnd = min(day.atTime(query.getWorkEnd()), query.getEndTime());
+			if (!cursor.isBefore(dayEnd)) {
+				continue;
+			}
+
+			// 跳过当天开始前已结束的占用
+			while (next < busy.size() && !busy.get(next).endTime().isAfter(cursor)) {
+				next++;
+			}
+
+			for (int i = next; i < busy.size(); i++) {
+				Busy interval = busy.get(i);
+				if (!interval.startTime().isBefore(dayEnd)) {
+					break;
+				}
+				addSlot(slots, cursor, min(interval.startTime(), dayEnd), query.getMinMinutes());
+				cursor = max(cursor, interval.endTime());
+			}
+
+			addSlot(slots, cursor, dayEnd, query.getMinMinutes());
+		}
+
+		return slots;
+	}
+
+	private void addSlot(List<FreeSlot> slots, LocalDateTime start, LocalDateTime end, int minMinutes) {
+		long minutes = Duration.between(start, end).toMinutes();
+		if (minutes >= minMinutes && minutes > 0) {
+			slots.add(FreeSlot.builder()
+					.startTime(start)
+					.endTime(end)
+					.minutes(minutes)
+					.build());
+		}
+	}
+
+	private record Busy(LocalDateTime startTime, LocalDateTime endTime) {}
+
+	private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+		return a.isAfter(b) ? a : b;
+	}
+
+	private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+		return a.isBefore(b) ? a : b;
+	}
+}
@@ -0,0 +1,161 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * 会议室设施和容量的内存位图索引
+ * <p>
+ * 会议室按容量升序编号，每个设施一个 BitSet 记录拥有该设施的会议室编号。
+ * 容量条件通过二分查找得到起始编号，转换为一个连续区间的位图，
+ * 再与各设施的位图做 AND，结果天然按容量从小到大排列（最合适的在前）。
+ * 除全部会议室外，每个楼宇单独一份快照。会议室变化很少，变更后整体重建快照并原子替换，查询无锁。
+ *
+ * @author tangtian
+ * @date 2025-12-16 10:10
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomFilterIndex {
+
+	private final MeetingRoomRepository roomRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	// 全部会议室的快照
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	// 楼宇ID -> 该楼宇会议室的快照，按楼宇查询时不会扫描其他楼宇
+	private volatile Map<Long, Snapshot> buildingSnapshots = Map.of();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void refresh() {
+		List<MeetingRoom> rooms = roomRepository.findAll();
+
+		Map<Long, List<String>> facilitiesByRoom = new HashMap<>();
+		jdbcTemplate.query("SELECT rf.room_id, f.name FROM meeting_room_facility rf " +
+						"JOIN facility f ON f.id = rf.facility_id",
+				rs -> {
+					facilitiesByRoom.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(rs.getString(2));
+				});
+
+		Map<Long, Snapshot> byBuilding = new HashMap<>();
+		rooms.stream()
+				.collect(Collectors.groupingBy(MeetingRoom::getBuildingId))
+				.forEach((buildingId, buildingRooms) ->
+						byBuilding.put(buildingId, Snapshot.build(buildingRooms, facilitiesByRoom)));
+
+		snapshot = Snapshot.build(rooms, facilitiesByRoom);
+		buildingSnapshots = Map.copyOf(byBuilding);
+		log.info("会议室筛选索引加载完成 - 楼宇: {}, 会议室: {}, 设施: {}",
+				byBuilding.size(), rooms.size(), snapshot.facilityBits().size());
+	}
+
+	public List<MeetingRoom> find(Integer minCapacity, Collection<String> facilities) {
+		return find(null, minCapacity, facilities);
+	}
+
+	/**
+	 * 查找容量不小于 minCapacity 且具备全部设施的会议室，按容量升序返回
+	 *
+	 * @param buildingId  为空时不限楼宇
+	 * @param minCapacity 为空时不限容量
+	 * @param facilities  为空时不限设施，包含未知设施时结果为空
+	 */
+	public List<MeetingRoom> find(Long buildingId, Integer minCapacity, Collection<String> facilities) {
+		Snapshot current = buildingId == null
+				? snapshot
+				: buildingSnapshots.getOrDefault(buildingId, Snapshot.EMPTY);
+		BitSet matched = current.atLeast(minCapacity == null ? 0 : minCapacity);
+
+		if (facilities != null) {
+			for (String facility : facilities) {
+				BitSet bits = current.facilityBits.get(facility.trim());
+				if (bits == null) {
+					return List.of();
+				}
+				matched.and(bits);
+			}
+		}
+
+		List<MeetingRoom> result = new ArrayList<>(matched.cardinality());
+		for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+			result.add(current.rooms[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * 设施目录，按名称排序
+	 */
+	public Set<String> facilityNames() {
+		return new TreeSet<>(snapshot.facilityBits.keySet());
+	}
+
+	/**
+	 * 索引快照，构建后只读
+	 */
+	private record Snapshot(MeetingRoom[] rooms, int[] capacities, Map<String, BitSet> facilityBits) {
+
+		static final Snapshot EMPTY = new Snapshot(new MeetingRoom[0], new int[0], Map.of());
+
+		static Snapshot build(List<MeetingRoom> rooms, Map<Long, List<String>> facilitiesByRoom) {
+			MeetingRoom[] byCapacity = rooms.stream()
+					.sorted(Comparator.comparing(MeetingRoom::getCapacity).thenComparing(MeetingRoom::getId))
+					.toArray(MeetingRoom[]::new);
+			int[] capacities = new int[byCapacity.length];
+			Map<String, BitSet> facilityBits = new HashMap<>();
+			for (int i = 0; i < byCapacity.length; i++) {
+				capacities[i] = byCapacity[i].getCapacity();
+				for (String facility : facilitiesByRoom.getOrDefault(byCapacity[i].getId(), List.of())) {
+					facilityBits.computeIfAbsent(facility, k -> new BitSet(byCapacity.length)).set(i);
+				}
+			}
+			return new Snapshot(byCapacity, capacities, facilityBits);
+		}
+
+		/**
+		 * 容量 >= minCapacity 的会议室位图，容量已排序，符合条件的是从第一个满足位置到末尾的连续区间
+		 */
+		BitSet atLeast(int minCapacity) {
+			int from = lowerBound(capacities, minCapacity);
+			BitSet bits = new BitSet(rooms.length);
+			bits.set(from, rooms.length);
+			return bits;
+		}
+
+		/**
+		 * 第一个 >= key 的位置
+		 */
+		private static int lowerBound(int[] sorted, int key) {
+			int low = 0;
+			int high = sorted.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (sorted[mid] < key) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package top.tangtian.meetingschedule.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import top.tangtian.meetingschedule.dto.RoomStatusResponse;
+import top.tangtian.meetingschedule.event.RoomStatusChangedEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 会议室状态推送
+ * <p>
+ * 订阅时先发送当天的完整状态（snapshot），之后只在某个会议室的状态快照更新时发送该会议室（room）。
+ * 连接使用 Servlet 异步请求和非阻塞输出：事件编码一次后放入订阅者的有界队列，
+ * 只在输出流可写时写入，写不动时等容器回调 onWritePossible 继续，任何线程都不会阻塞在慢连接上；
+ * 队列写满说明客户端跟不上，直接结束请求，浏览器重连后重新拿到完整状态。
+ * 定时发送心跳注释，保持连接不被代理断开，同时尽早发现已断开的客户端。
+ *
+ * @author tangtian
+ * @date 2025-12-24 10:10
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomStatusBroadcaster {
+
+	// 单个连接最长保持时间，到期后浏览器自动重连
+	private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+	// 浏览器断线后的重连间隔
+	private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+	// 每个订阅者最多积压的事件数，超过即视为慢消费者断开
+	private static final int BUFFER_SIZE = 32;
+
+	// 订阅者上限，超过时返回 503，页面退回轮询
+	private static final int MAX_SUBSCRIBERS = 5000;
+
+	private static final byte[] PING = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+	private final RoomStatusService roomStatusService;
+	private final ObjectMapper objectMapper;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 订阅某天的会议室状态，date 为空时跟随当天，跨零点后自动切换到新的一天
+	 *
+	 * @return 订阅者已满时返回 false，此时没有开始异步请求
+	 */
+	public boolean subscribe(HttpServletRequest request, HttpServletResponse response, LocalDate date,
+							 Long buildingId, Integer minCapacity, Collection<String> facilities) throws IOException {
+		if (subscribers.size() >= MAX_SUBSCRIBERS) {
+			log.warn("状态推送订阅者已满 - 上限: {}", MAX_SUBSCRIBERS);
+			return false;
+		}
+
+		response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader("Cache-Control", "no-cache");
+		// 禁止反向代理缓冲事件流
+		response.setHeader("X-Accel-Buffering", "no");
+
+		AsyncContext async = request.startAsync(request, response);
+		async.setTimeout(STREAM_TIMEOUT.toMillis());
+		Subscriber subscriber = new Subscriber(async, response.getOutputStream(), date == null,
+				date == null ? LocalDate.now() : date, buildingId, minCapacity,
+				facilities == null ? List.of() : List.copyOf(facilities));
+		async.addListener(new AsyncListener() {
+			@Override
+			public void onComplete(AsyncEvent event) {
+				subscribers.remove(subscriber);
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+				close(subscriber);
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+				close(subscriber);
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+		});
+		// 设置后输出流变为非阻塞，写入前必须检查 isReady
+		subscriber.output.setWriteListener(new WriteListener() {
+			@Override
+			public void onWritePossible() {
+				drain(subscriber);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				close(subscriber);
+			}
+		});
+
+		subscribers.add(subscriber);
+		sendSnapshot(subscriber);
+		log.debug("状态推送订阅 - 日期: {}, 当前订阅者: {}", subscriber.date, subscribers.size());
+		return true;
+	}
+
+	/**
+	 * 快照更新后按日期取一次最新状态并编码一次，分发给订阅了该日期且筛选条件包含该会议室的订阅者
+	 */
+	@EventListener
+	public void onRoomStatusChanged(RoomStatusChangedEvent event) {
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		if (event.roomId() == null) {
+			subscribers.stream()
+					.filter(subscriber -> event.affects(subscriber.date))
+					.forEach(this::sendSnapshot);
+			return;
+		}
+
+		Map<LocalDate, RoomStatusResponse> statusByDate = new HashMap<>();
+		Map<LocalDate, byte[]> frameByDate = new HashMap<>();
+		for (Subscriber subscriber : subscribers) {
+			LocalDate date = subscriber.date;
+			if (!event.affects(date)) {
+				continue;
+			}
+			// 会议室在所在楼宇和全部会议室的快照中状态相同，按日期取一次；订阅的楼宇不包含该会议室时跳过
+			RoomStatusResponse status = statusByDate.get(date);
+			if (status == null) {
+				status = roomStatusService.getRoomStatus(date, subscriber.buildingId, event.roomId()).orElse(null);
+				if (status == null) {
+					continue;
+				}
+				statusByDate.put(date, status);
+			}
+			if (subscriber.roomNames.contains(status.getName())) {
+				RoomStatusResponse changed = status;
+				enqueue(subscriber, frameByDate.computeIfAbsent(date, d -> frame("room", null, toJson(changed))));
+			}
+		}
+	}
+
+	/**
+	 * 心跳，同时把跟随当天的订阅者切换到新的一天
+	 */
+	@Scheduled(fixedRate = 20, timeUnit = TimeUnit.SECONDS)
+	public void heartbeat() {
+		LocalDate today = LocalDate.now();
+		for (Subscriber subscriber : subscribers) {
+			if (subscriber.followToday && !today.equals(subscriber.date)) {
+				subscriber.date = today;
+				sendSnapshot(subscriber);
+			} else {
+				enqueue(subscriber, PING);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		subscribers.forEach(this::close);
+	}
+
+	private void sendSnapshot(Subscriber subscriber) {
+		List<RoomStatusResponse> rooms = roomStatusService.getRoomStatusForDate(subscriber.date,
+				subscriber.buildingId, subscriber.minCapacity, subscriber.facilities);
+		subscriber.roomNames = rooms.stream()
+				.map(RoomStatusResponse::getName)
+				.collect(Collectors.toUnmodifiableSet());
+		enqueue(subscriber, frame("snapshot", subscriber.date.toString(), toJson(rooms)));
+	}
+
+	private void enqueue(Subscriber subscriber, byte[] frame) {
+		if (!subscriber.queue.offer(frame)) {
+			log.info("状态推送客户端处理过慢，已断开 - 日期: {}", subscriber.date);
+			close(subscriber);
+			return;
+		}
+		drain(subscriber);
+	}
+
+	/**
+	 * 输出流可写时写出积压的事件，写不动时直接返回，由容器回调 onWritePossible 继续；
+	 * 同一订阅者的写入串行执行，保证事件顺序
+	 */
+	private void drain(Subscriber subscriber) {
+		synchronized (subscriber) {
+			if (!subscribers.contains(subscriber)) {
+				return;
+			}
+			try {
+				while (subscriber.output.isReady()) {
+					byte[] frame = subscriber.queue.poll();
+					if (frame != null) {
+						subscriber.output.write(frame);
+						subscriber.unflushed = true;
+					} else if (subscriber.unflushed) {
+						subscriber.unflushed = false;
+						subscriber.output.flush();
+					} else {
+						return;
+					}
+				}
+			} catch (IOException | IllegalStateException e) {
+				// 客户端已断开
+				close(subscriber);
+			}
+		}
+	}
+
+	/**
+	 * 结束异步请求，非阻塞模式下不会等待未写完的数据，可以在任意线程调用
+	 */
+	private void close(Subscriber subscriber) {
+		if (subscribers.remove(subscriber)) {
+			subscriber.queue.clear();
+			try {
+				subscriber.async.complete();
+			} catch (IllegalStateException e) {
+				// 请求已结束
+			}
+		}
+	}
+
+	/**
+	 * 编码一条事件，data 中的换行拆成多行 data 字段
+	 */
+	private static byte[] frame(String event, String id, String data) {
+		StringBuilder frame = new StringBuilder(data.length() + 64);
+		frame.append("event:").append(event).append('\n');
+		if (id != null) {
+			frame.append("id:").append(id).append('\n')
+					.append("retry:").append(RECONNECT_DELAY.toMillis()).append('\n');
+		}
+		for (String line : data.split("\n", -1)) {
+			frame.append("data:").append(line).append('\n');
+		}
+		frame.append('\n');
+		return frame.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("状态序列化失败", e);
+		}
+	}
+
+	private static final class Subscriber {
+		private final AsyncContext async;
+		private final ServletOutputStream output;
+		private final boolean followToday;
+		private final Long buildingId;
+		private final Integer minCapacity;
+		private final List<String> facilities;
+		private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
+
+		private volatile LocalDate date;
+
+		// 筛选条件命中的会议室，每次发送完整状态时更新
+		private volatile Set<String> roomNames = Set.of();
+
+		// 已写入但未 flush 的数据，只在 drain 中访问
+		private boolean unflushed;
+
+		private Subscriber(AsyncContext async, ServletOutputStream output, boolean followToday, LocalDate date,
+						   Long buildingId, Integer minCapacity, List<String> facilities) {
+			this.async = async;
+			this.output = output;
+			this.followToday = followToday;
+			this.date = date;
+			this.buildingId = buildingId;
+			this.minCapacity = minCapacity;
+			this.facilities = facilities;
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package top.tangtian.meetingschedule.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.tangtian.meetingschedule.dto.BookingSchedule;
+import top.tangtian.meetingschedule.dto.RecurringOccurrence;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 多日会议室状态，供周视图、月视图一次取回
+ * <p>
+ * 整个范围只执行一条按 (room_id, start_time) 排序的查询，用数据库游标逐行读取，
+ * 按 会议室 -> 日期 -> 日程 的结构边读边用 JsonGenerator 写到响应流。
+ * 内存中只保留当前会议室当天的日程，与范围内的会议室数和天数无关。
+ * 每天的状态和日程与单日状态接口的规则一致（只统计当天开始并结束的预订，周期预订按天展开）。
+ *
+ * @author tangtian
+ * @date 2025-12-25 10:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomStatusRangeService {
+
+	// 单次最多查询的天数
+	public static final int MAX_DAYS = 31;
+
+	private static final int FETCH_SIZE = 500;
+
+	private static final String RANGE_ROWS = """
+			SELECT room_id, title, organizer, start_time, end_time
+			FROM room_booking
+			WHERE room_id = ANY (?) AND status = 'CONFIRMED'
+			  AND start_time >= ? AND start_time <= ? AND end_time <= ?
+			ORDER BY room_id, start_time""";
+
+	private final MeetingRoomRepository roomRepository;
+	private final RecurrenceService recurrenceService;
+	private final JdbcTemplate jdbcTemplate;
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * 指定会议室名称时只查该会议室（不存在返回 empty），否则为楼宇或全部会议室
+	 */
+	public Optional<List<MeetingRoom>> rooms(String roomName, Long buildingId) {
+		if (roomName != null && !roomName.isBlank()) {
+			return roomRepository.findByName(roomName.trim()).map(List::of);
+		}
+		return Optional.of(buildingId == null ? roomRepository.findAll() : roomRepository.findByBuildingId(buildingId));
+	}
+
+	/**
+	 * 写出 [from, to] 每天每个会议室的状态，会议室按ID排序
+	 */
+	@Transactional(readOnly = true)
+	public void writeRange(List<MeetingRoom> rooms, LocalDate from, LocalDate to, OutputStream out) {
+		List<MeetingRoom> sorted = rooms.stream()
+				.sorted(Comparator.comparing(MeetingRoom::getId))
+				.toList();
+		Long[] ids = sorted.stream().map(MeetingRoom::getId).toArray(Long[]::new);
+		Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+		Timestamp end = Timestamp.valueOf(to.atTime(LocalTime.MAX));
+
+		try (JsonGenerator json = objectMapper.createGenerator(out)) {
+			// 响应流由容器关闭
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			json.writeStartObject();
+			json.writeStringField("from", from.toString());
+			json.writeStringField("to", to.toString());
+			json.writeArrayFieldStart("rooms");
+
+			RangeWriter writer = new RangeWriter(json, sorted.iterator(), from, to);
+			// 只读事务内设置 fetchSize，驱动使用游标分批取数，不会把结果集一次读入内存
+			jdbcTemplate.query(con -> {
+				PreparedStatement ps = con.prepareStatement(RANGE_ROWS);
+				ps.setFetchSize(FETCH_SIZE);
+				ps.setArray(1, con.createArrayOf("bigint", ids));
+				ps.setTimestamp(2, start);
+				ps.setTimestamp(3, end);
+				ps.setTimestamp(4, end);
+				return ps;
+			}, (RowCallbackHandler) rs -> writer.row(rs.getLong("room_id"),
+					rs.getTimestamp("start_time").toLocalDateTime(),
+					rs.getTimestamp("end_time").toLocalDateTime(),
+					rs.getString("title"),
+					rs.getString("organizer")));
+			writer.finish();
+
+			json.writeEndArray();
+			json.writeEndObject();
+		} catch (IOException e) {
+			// 客户端断开
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 按 (room_id, start_time) 顺序接收预订行，依次写出会议室和每一天；没有预订的会议室和日期也会写出
+	 */
+	private final class RangeWriter {
+
+		private final JsonGenerator json;
+		private final Iterator<MeetingRoom> rooms;
+		private final LocalDate from;
+		private final LocalDate to;
+
+		private MeetingRoom room;
+		private LocalDate day;
+
+		// 当前会议室当天的日程，键为开始时间
+		private final List<Map.Entry<LocalDateTime, BookingSchedule>> daySchedules = new ArrayList<>();
+
+		private RangeWriter(JsonGenerator json, Iterator<MeetingRoom> rooms, LocalDate from, LocalDate to) {
+			this.json = json;
+			this.rooms = rooms;
+			this.from = from;
+			this.to = to;
+		}
+
+		void row(long roomId, LocalDateTime start, LocalDateTime end, String title, String organizer) {
+			try {
+				while (room == null || room.getId() < roomId) {
+					if (room != null) {
+						finishRoom();
+					}
+					if (!rooms.hasNext()) {
+						return;
+					}
+					startRoom(rooms.next());
+				}
+
+				// 跨零点的预订不计入任何一天，与单日状态一致
+				LocalDate date = start.toLocalDate();
+				if (room.getId() != roomId || end.isAfter(date.atTime(LocalTime.MAX))) {
+					return;
+				}
+				while (day.isBefore(date)) {
+					flushDay();
+				}
+				daySchedules.add(Map.entry(start, RoomStatusService.toSchedule(start, end, title, organizer)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void finish() throws IOException {
+			if (room != null) {
+				finishRoom();
+			}
+			while (rooms.hasNext()) {
+				startRoom(rooms.next());
+				finishRoom();
+			}
+		}
+
+		private void startRoom(MeetingRoom next) throws IOException {
+			room = next;
+			day = from;
+			json.writeStartObject();
+			json.writeStringField("name", room.getName());
+			json.writeObjectField("capacity", room.getCapacity());
+			json.writeStringField("location", room.getLocation());
+			json.writeStringField("facilities", room.getFacilities());
+			json.writeArrayFieldStart("days");
+		}
+
+		private void finishRoom() throws IOException {
+			while (!day.isAfter(to)) {
+				flushDay();
+			}
+			json.writeEndArray();
+			json.writeEndObject();
+		}
+
+		/**
+		 * 合并当天的周期发生后写出当前日期，并前进到下一天
+		 */
+		private void flushDay() throws IOException {
+			for (RecurringOccurrence occurrence : recurrenceService.occurrences(room.getId(),
+					day.atStartOfDay(), day.atTime(LocalTime.MAX))) {
+				daySchedules.add(Map.entry(occurrence.startTime(), RoomStatusService.toSchedule(
+						occurrence.startTime(), occurrence.endTime(), occurrence.title(), occurrence.organizer())));
+			}
+			daySchedules.sort(Map.Entry.comparingByKey());
+
+			json.writeStartObject();
+			json.writeStringField("date", day.toString());
+			json.writeStringField("status", RoomStatusService.determineStatus(daySchedules.size()));
+			json.writeArrayFieldStart("schedules");
+			for (Map.Entry<LocalDateTime, BookingSchedule> entry : daySchedules) {
+				json.writeObject(entry.getValue());
+			}
+			json.writeEndArray();
+			json.writeEndObject();
+
+			daySchedules.clear();
+			day = day.plusDays(1);
+		}
+	}
+}
@@ -1,60 +1,304 @@
 package top.tangtian.meetingschedule.service;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import top.tangtian.meetingschedule.dto.BookingSchedule;
+import top.tangtian.meetingschedule.dto.RecurringOccurrence;
+import top.tangtian.meetingschedule.dto.RoomScheduleRow;
 import top.tangtian.meetingschedule.dto.RoomStatusResponse;
 import top.tangtian.meetingschedule.entity.MeetingRoom;
-import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.event.RecurringBookingChangedEvent;
+import top.tangtian.meetingschedule.event.RoomStatusChangedEvent;
 import top.tangtian.meetingschedule.repository.MeetingRoomRepository;
 import top.tangtian.meetingschedule.repository.RoomBookingRepository;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
+ * 会议室状态
+ * <p>
+ * 按 (楼宇, 日期) 缓存状态快照，指定楼宇的请求只用该楼宇的会议室、预订和周期发生构建，
+ * 不读取其他楼宇的数据；不指定楼宇的请求使用全部会议室的快照。
+ * 整天的预订和周期发生各查询一次、按会议室分组一次构建。
+ * 预订或周期预订变更提交后只重算受影响会议室在已缓存快照（所在楼宇和全部会议室）上的状态，其余会议室的结果直接复用。
+ * 容量和设施条件在快照之上筛选，不同条件的请求共用同一份快照。
+ * 快照更新后发布 {@link RoomStatusChangedEvent}，推送给订阅状态流的客户端。
+ * 快照的版本号由每个会议室状态内容的摘要相加得到，作为状态接口的 ETag，未变化的轮询直接返回 304；
+ * 版本号只取决于内容，多实例部署时各实例对同样的数据得到同样的 ETag。
+ *
  * @author tangtian
  * @date 2025-11-19 13:08
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RoomStatusService {
 
+	// 缓存的快照数上限（楼宇 x 日期），状态页基本只看今明两天，其他日期按需构建
+	private static final int MAX_CACHED_SNAPSHOTS = 256;
+
+	// 兜底过期时间，绕过事件的写入（例如直接改库）最多延迟这么久可见
+	private static final Duration SNAPSHOT_TTL = Duration.ofMinutes(10);
+
 	private final MeetingRoomRepository roomRepository;
 	private final RoomBookingRepository bookingRepository;
+	private final RecurrenceService recurrenceService;
+	private final RoomFilterIndex roomFilterIndex;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ObjectMapper objectMapper;
 	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+	// (楼宇, 日期) -> 当天该楼宇所有会议室的状态快照
+	private final Cache<SnapshotKey, DaySnapshot> snapshots = Caffeine.newBuilder()
+			.maximumSize(MAX_CACHED_SNAPSHOTS)
+			.expireAfterWrite(SNAPSHOT_TTL)
+			.build();
+
+	public RoomStatusService(MeetingRoomRepository roomRepository, RoomBookingRepository bookingRepository,
+							 RecurrenceService recurrenceService, RoomFilterIndex roomFilterIndex,
+							 PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+							 ObjectMapper objectMapper) {
+		this.roomRepository = roomRepository;
+		this.bookingRepository = bookingRepository;
+		this.recurrenceService = recurrenceService;
+		this.roomFilterIndex = roomFilterIndex;
+		this.eventPublisher = eventPublisher;
+		this.objectMapper = objectMapper;
+		// 快照在提交后的监听中也会重算，需要独立的读写事务：走主库，不受从库延迟影响
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
 	public List<RoomStatusResponse> getRoomStatusForDate(LocalDate date) {
-		log.info("查询日期 {} 的会议室状态", date);
+		return getRoomStatusForDate(date, null, null, null);
+	}
 
-		LocalDateTime startOfDay = date.atStartOfDay();
-		LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
+	/**
+	 * 按楼宇、容量和设施筛选会议室后查询状态，条件为空表示不限制
+	 */
+	public List<RoomStatusResponse> getRoomStatusForDate(LocalDate date, Long buildingId, Integer minCapacity,
+														 Collection<String> facilities) {
+		log.debug("查询日期 {} 的会议室状态", date);
 
-		List<MeetingRoom> allRooms = roomRepository.findAll();
-		List<RoomBooking> bookingsForDay = bookingRepository.findBookingsBetween(startOfDay, endOfDay);
+		DaySnapshot snapshot = snapshot(buildingId, date);
+		boolean filtered = minCapacity != null || (facilities != null && !facilities.isEmpty());
+		if (!filtered) {
+			return new ArrayList<>(snapshot.statuses().values());
+		}
 
-		return allRooms.stream()
-				.map(room -> buildRoomStatus(room, bookingsForDay))
+		return roomFilterIndex.find(buildingId, minCapacity, facilities).stream()
+				.map(room -> snapshot.statuses().get(room.getId()))
+				.filter(Objects::nonNull)
 				.collect(Collectors.toList());
 	}
 
-	private RoomStatusResponse buildRoomStatus(MeetingRoom room, List<RoomBooking> allBookings) {
-		// 过滤出该会议室的预订
-		List<RoomBooking> roomBookings = allBookings.stream()
-				.filter(booking -> booking.getRoom().getId().equals(room.getId()))
-				.filter(booking -> "CONFIRMED".equals(booking.getStatus()))
-				.sorted((b1, b2) -> b1.getStartTime().compareTo(b2.getStartTime()))
-				.collect(Collectors.toList());
+	/**
+	 * 某天状态的强 ETag，快照已缓存时不访问数据库；内容相同的快照在任何实例上 ETag 都相同
+	 * <p>
+	 * 需要在读取状态之前获取：两者之间快照若被更新，返回的是新内容配旧版本，下次请求不会命中 304，不会返回过期内容
+	 */
+	public String etag(LocalDate date, Long buildingId) {
+		return String.format("\"%016x\"", snapshot(buildingId, date).version());
+	}
+
+	/**
+	 * 单个会议室某天的状态，从楼宇（为空时全部会议室）的快照中取，快照未缓存时先构建
+	 */
+	public Optional<RoomStatusResponse> getRoomStatus(LocalDate date, Long buildingId, Long roomId) {
+		return Optional.ofNullable(snapshot(buildingId, date).statuses().get(roomId));
+	}
+
+	/**
+	 * 启动时以及每天零点预热今明两天
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "0 0 0 * * *")
+	public void warmUp() {
+		LocalDate today = LocalDate.now();
+		snapshot(null, today);
+		snapshot(null, today.plusDays(1));
+	}
+
+	/**
+	 * 丢弃 [from, to] 内的快照，下次查询时重建，用于绕过变更事件的批量写入
+	 */
+	public void invalidate(LocalDate from, LocalDate to) {
+		snapshots.asMap().keySet().removeIf(key -> !key.date().isBefore(from) && !key.date().isAfter(to));
+		eventPublisher.publishEvent(new RoomStatusChangedEvent(null, from, to));
+	}
+
+	/**
+	 * 会议室目录变化后丢弃全部快照，下次查询时重建
+	 */
+	public void invalidateAll() {
+		snapshots.invalidateAll();
+		eventPublisher.publishEvent(RoomStatusChangedEvent.all());
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		// 取消和释放同样只影响这个会议室，重新查询即可
+		LocalDate from = event.startTime().toLocalDate();
+		LocalDate to = event.endTime().toLocalDate();
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			refreshRoom(event.roomId(), date);
+		}
+		eventPublisher.publishEvent(new RoomStatusChangedEvent(event.roomId(), from, to));
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRecurringBookingChanged(RecurringBookingChangedEvent event) {
+		RoomStatusChangedEvent changed = new RoomStatusChangedEvent(event.roomId(), event.fromDate(), event.toDate());
+		snapshots.asMap().keySet().stream()
+				.map(SnapshotKey::date)
+				.filter(changed::affects)
+				.distinct()
+				.toList()
+				.forEach(date -> refreshRoom(event.roomId(), date));
+		eventPublisher.publishEvent(changed);
+	}
+
+	private DaySnapshot snapshot(Long buildingId, LocalDate date) {
+		return snapshots.get(new SnapshotKey(buildingId, date), this::buildSnapshot);
+	}
+
+	/**
+	 * 构建一个楼宇某天的快照，楼宇为空时构建全部会议室的快照
+	 */
+	private DaySnapshot buildSnapshot(SnapshotKey key) {
+		long started = System.currentTimeMillis();
+		Long buildingId = key.buildingId();
+		LocalDateTime startOfDay = key.date().atStartOfDay();
+		LocalDateTime endOfDay = key.date().atTime(LocalTime.MAX);
+
+		DaySnapshot snapshot = transactionTemplate.execute(status -> {
+			List<MeetingRoom> scopeRooms = buildingId == null
+					? roomRepository.findAll()
+					: roomRepository.findByBuildingId(buildingId);
+
+			// 投影查询已按开始时间排序，按会议室分组后组内仍然有序
+			List<RoomScheduleRow> rows = buildingId == null
+					? bookingRepository.findScheduleRowsBetween(startOfDay, endOfDay)
+					: bookingRepository.findScheduleRowsBetweenInBuilding(buildingId, startOfDay, endOfDay);
+			Map<Long, List<RoomScheduleRow>> rowsByRoom = rows.stream()
+					.collect(Collectors.groupingBy(RoomScheduleRow::roomId));
 
-		// 转换为前端需要的格式
-		List<BookingSchedule> schedules = roomBookings.stream()
-				.map(this::convertToSchedule)
+			// 周期预订只展开当天的发生
+			List<RecurringOccurrence> occurrences = buildingId == null
+					? recurrenceService.occurrences(startOfDay, endOfDay)
+					: recurrenceService.occurrences(scopeRooms.stream().map(MeetingRoom::getId).toList(),
+							startOfDay, endOfDay);
+			Map<Long, List<RecurringOccurrence>> occurrencesByRoom = occurrences.stream()
+					.collect(Collectors.groupingBy(RecurringOccurrence::roomId));
+
+			Map<Long, MeetingRoom> rooms = new LinkedHashMap<>();
+			Map<Long, RoomStatusResponse> statuses = new LinkedHashMap<>();
+			Map<Long, Long> digests = new HashMap<>();
+			long version = 0;
+			for (MeetingRoom room : scopeRooms) {
+				RoomStatusResponse roomStatus = buildRoomStatus(room,
+						rowsByRoom.getOrDefault(room.getId(), List.of()),
+						occurrencesByRoom.getOrDefault(room.getId(), List.of()));
+				long digest = digest(roomStatus);
+				rooms.put(room.getId(), room);
+				statuses.put(room.getId(), roomStatus);
+				digests.put(room.getId(), digest);
+				version += digest;
+			}
+			return new DaySnapshot(version, Collections.unmodifiableMap(rooms),
+					Collections.unmodifiableMap(statuses), Collections.unmodifiableMap(digests));
+		});
+
+		log.info("会议室状态快照构建完成 - 楼宇: {}, 日期: {}, 会议室: {}, 耗时: {}ms",
+				buildingId == null ? "全部" : buildingId, key.date(), snapshot.rooms().size(),
+				System.currentTimeMillis() - started);
+		return snapshot;
+	}
+
+	/**
+	 * 只重算一个会议室在某天已缓存快照上的状态：会议室所在楼宇的快照和全部会议室的快照，
+	 * 其他楼宇的快照不包含该会议室，不处理；未缓存的日期也不处理
+	 * <p>
+	 * 在快照条目上原子执行，与同一条目的构建和其他更新串行，后提交的变更不会被先开始的重算覆盖
+	 */
+	private void refreshRoom(Long roomId, LocalDate date) {
+		List<SnapshotKey> keys = snapshots.asMap().keySet().stream()
+				.filter(key -> key.date().equals(date))
+				.toList();
+		for (SnapshotKey key : keys) {
+			snapshots.asMap().computeIfPresent(key, (k, snapshot) -> refreshRoom(snapshot, roomId, date));
+		}
+	}
+
+	private DaySnapshot refreshRoom(DaySnapshot snapshot, Long roomId, LocalDate date) {
+		MeetingRoom room = snapshot.rooms().get(roomId);
+		if (room == null) {
+			return snapshot;
+		}
+		LocalDateTime startOfDay = date.atStartOfDay();
+		LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
+		List<RoomScheduleRow> rows = transactionTemplate.execute(status ->
+				bookingRepository.findScheduleRowsForRoomBetween(roomId, startOfDay, endOfDay));
+		RoomStatusResponse status = buildRoomStatus(room, rows,
+				recurrenceService.occurrences(roomId, startOfDay, endOfDay));
+		return snapshot.with(roomId, status, digest(status));
+	}
+
+	/**
+	 * 会议室状态内容的64位摘要，取响应 JSON 的 MD5 前8字节；快照版本号为各会议室摘要之和，更新单个会议室时只需加减差值
+	 */
+	private long digest(RoomStatusResponse status) {
+		try {
+			byte[] hash = MessageDigest.getInstance("MD5").digest(objectMapper.writeValueAsBytes(status));
+			return ByteBuffer.wrap(hash).getLong();
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("会议室状态摘要计算失败", e);
+		}
+	}
+
+	private RoomStatusResponse buildRoomStatus(MeetingRoom room, List<RoomScheduleRow> rows,
+											   List<RecurringOccurrence> occurrences) {
+		// 单次预订与周期发生合并后按开始时间排序，转换为前端需要的格式
+		List<BookingSchedule> schedules = Stream.concat(
+						rows.stream().map(row -> Map.entry(row.startTime(),
+								toSchedule(row.startTime(), row.endTime(), row.title(), row.organizer()))),
+						occurrences.stream().map(occurrence -> Map.entry(occurrence.startTime(),
+								toSchedule(occurrence.startTime(), occurrence.endTime(),
+										occurrence.title(), occurrence.organizer()))))
+				.sorted(Map.Entry.comparingByKey())
+				.map(Map.Entry::getValue)
 				.collect(Collectors.toList());
 
 		// 确定状态
@@ -70,19 +314,19 @@ public class RoomStatusService {
 				.build();
 	}
 
-	private BookingSchedule convertToSchedule(RoomBooking booking) {
-		String startTime = booking.getStartTime().format(TIME_FORMATTER);
-		String endTime = booking.getEndTime().format(TIME_FORMATTER);
+	static BookingSchedule toSchedule(LocalDateTime start, LocalDateTime end, String title, String organizer) {
+		String startTime = start.format(TIME_FORMATTER);
+		String endTime = end.format(TIME_FORMATTER);
 		String timeRange = startTime + "-" + endTime;
 
 		return BookingSchedule.builder()
 				.time(timeRange)
-				.title(booking.getTitle())
-				.organizer(booking.getOrganizer())
+				.title(title)
+				.organizer(organizer)
 				.build();
 	}
 
-	private String determineStatus(int bookingCount) {
+	static String determineStatus(int bookingCount) {
 		if (bookingCount == 0) {
 			return "available";
 		} else if (bookingCount <= 2) {
@@ -91,4 +335,27 @@ public class RoomStatusService {
 			return "booked";
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * 快照的键，buildingId 为空表示全部会议室
+	 */
+	private record SnapshotKey(Long buildingId, LocalDate date) {
+	}
+
+	/**
+	 * 某一天的状态快照，更新时复制出新快照替换，读取无锁
+	 */
+	private record DaySnapshot(long version, Map<Long, MeetingRoom> rooms, Map<Long, RoomStatusResponse> statuses,
+							   Map<Long, Long> digests) {
+
+		DaySnapshot with(Long roomId, RoomStatusResponse status, long digest) {
+			Map<Long, RoomStatusResponse> updatedStatuses = new LinkedHashMap<>(statuses);
+			updatedStatuses.put(roomId, status);
+			Map<Long, Long> updatedDigests = new HashMap<>(digests);
+			Long previous = updatedDigests.put(roomId, digest);
+			long newVersion = version - (previous == null ? 0 : previous) + digest;
+			return new DaySnapshot(newVersion, rooms, Collections.unmodifiableMap(updatedStatuses),
+					Collections.unmodifiableMap(updatedDigests));
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package top.tangtian.meetingschedule.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.tangtian.meetingschedule.dto.RecurringOccurrence;
+import top.tangtian.meetingschedule.entity.RecurringBooking;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.event.RecurringBookingChangedEvent;
+import top.tangtian.meetingschedule.repository.RecurringBookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 会议室使用率汇总（room_usage_daily / room_usage_hourly）维护
+ * 单次预订创建/取消时在同一事务内增量更新；周期预订变更和回填按时间段重建
+ *
+ * @author tangtian
+ * @date 2025-12-15 10:30
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomUsageRollupService {
+
+	private static final String UPSERT_HOURLY =
+			"INSERT INTO room_usage_hourly (room_id, usage_date, usage_hour, booked_minutes) VALUES (?, ?, ?, ?) " +
+			"ON CONFLICT (room_id, usage_date, usage_hour) " +
+			"DO UPDATE SET booked_minutes = room_usage_hourly.booked_minutes + EXCLUDED.booked_minutes";
+
+	private static final String UPSERT_DAILY =
+			"INSERT INTO room_usage_daily (room_id, usage_date, booked_minutes, booking_count) VALUES (?, ?, ?, ?) " +
+			"ON CONFLICT (room_id, usage_date) " +
+			"DO UPDATE SET booked_minutes = room_usage_daily.booked_minutes + EXCLUDED.booked_minutes, " +
+			"booking_count = room_usage_daily.booking_count + EXCLUDED.booking_count";
+
+	// 单次预订按小时切分后的分钟数，与 UsageAccumulator 的取整方式一致
+	private static final String REBUILD_HOURLY =
+			"INSERT INTO room_usage_hourly (room_id, usage_date, usage_hour, booked_minutes) " +
+			"SELECT b.room_id, h::date, extract(hour FROM h)::smallint, " +
+			"sum(floor(extract(epoch FROM least(b.end_time, h + INTERVAL '1 hour') - greatest(b.start_time, h)) / 60))::int " +
+			"FROM room_booking b " +
+			"CROSS JOIN LATERAL generate_series(date_trunc('hour', b.start_time), " +
+			"b.end_time - INTERVAL '1 microsecond', INTERVAL '1 hour') AS h " +
+			"WHERE b.status = 'CONFIRMED' AND b.start_time >= ? AND b.start_time < ? AND b.end_time > ? " +
+			"AND h >= ? AND h < ? AND (?::int IS NULL OR b.room_id = ?::int) " +
+			"GROUP BY b.room_id, h::date, extract(hour FROM h)";
+
+	private static final String REBUILD_DAILY_MINUTES =
+			"INSERT INTO room_usage_daily (room_id, usage_date, booked_minutes, booking_count) " +
+			"SELECT room_id, usage_date, sum(booked_minutes), 0 FROM room_usage_hourly " +
+			"WHERE usage_date >= ? AND usage_date < ? AND (?::int IS NULL OR room_id = ?::int) " +
+			"GROUP BY room_id, usage_date";
+
+	private static final String REBUILD_DAILY_COUNTS =
+			"INSERT INTO room_usage_daily (room_id, usage_date, booked_minutes, booking_count) " +
+			"SELECT room_id, start_time::date, 0, count(*) FROM room_booking " +
+			"WHERE status = 'CONFIRMED' AND start_time >= ? AND start_time < ? " +
+			"AND (?::int IS NULL OR room_id = ?::int) " +
+			"GROUP BY room_id, start_time::date " +
+			"ON CONFLICT (room_id, usage_date) " +
+			"DO UPDATE SET booking_count = room_usage_daily.booking_count + EXCLUDED.booking_count";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final RecurringBookingRepository recurringRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * 与预订写入在同一事务内更新汇总，事务回滚时汇总一起回滚
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onBookingChanged(BookingChangedEvent event) {
+		int sign = event.type() == BookingChangeType.CREATED ? 1 : -1;
+		UsageAccumulator accumulator = new UsageAccumulator(LocalDateTime.MIN, LocalDateTime.MAX);
+		accumulator.add(event.roomId(), event.startTime(), event.endTime(), sign);
+		accumulator.flush(jdbcTemplate);
+	}
+
+	/**
+	 * 周期预订的发生不落库，变更后重建该会议室受影响日期的汇总
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onRecurringBookingChanged(RecurringBookingChangedEvent event) {
+		rebuild(event.roomId(), event.fromDate().atStartOfDay(), event.toDate().plusDays(1).atStartOfDay());
+	}
+
+	/**
+	 * 回填：按月分批重建 [from, to] 的汇总，每月一个事务，返回处理的天数
+	 */
+	public long backfill(LocalDate from, LocalDate to) {
+		log.info("重建会议室使用率汇总: {} ~ {}", from, to);
+		LocalDate monthStart = from;
+		LocalDate end = to.plusDays(1);
+		while (monthStart.isBefore(end)) {
+			LocalDate next = monthStart.withDayOfMonth(1).plusMonths(1);
+			LocalDate monthEnd = next.isBefore(end) ? next : end;
+			LocalDateTime start = monthStart.atStartOfDay();
+			transactionTemplate.executeWithoutResult(status ->
+					rebuild(null, start, monthEnd.atStartOfDay()));
+			monthStart = monthEnd;
+		}
+		return ChronoUnit.DAYS.between(from, end);
+	}
+
+	/**
+	 * 重建 [from, to) 的汇总，from/to 为整天边界，roomId 为空时重建所有会议室
+	 */
+	private void rebuild(Long roomId, LocalDateTime from, LocalDateTime to) {
+		LocalDate fromDate = from.toLocalDate();
+		LocalDate toDate = to.toLocalDate();
+
+		jdbcTemplate.update("DELETE FROM room_usage_hourly WHERE usage_date >= ? AND usage_date < ? " +
+				"AND (?::int IS NULL OR room_id = ?::int)", fromDate, toDate, roomId, roomId);
+		jdbcTemplate.update("DELETE FROM room_usage_daily WHERE usage_date >= ? AND usage_date < ? " +
+				"AND (?::int IS NULL OR room_id = ?::int)", fromDate, toDate, roomId, roomId);
+
+		// 单次预订用一条 SQL 汇总，startTime 下界与分区查询一致
+		jdbcTemplate.update(REBUILD_HOURLY, from.minusHours(24), to, from, from, to, roomId, roomId);
+		jdbcTemplate.update(REBUILD_DAILY_MINUTES, fromDate, toDate, roomId, roomId);
+		jdbcTemplate.update(REBUILD_DAILY_COUNTS, from, to, roomId, roomId);
+
+		// 周期预订展开后按增量叠加
+		List<RecurringBooking> series = roomId == null
+				? recurringRepository.findActiveUntilAfter(fromDate)
+				: recurringRepository.findActiveUntilAfterForRoom(roomId, fromDate);
+		UsageAccumulator accumulator = new UsageAccumulator(from, to);
+		for (RecurringBooking s : series) {
+			for (RecurringOccurrence occurrence : RecurrenceService.expand(s, from, to)) {
+				accumulator.add(occurrence.roomId(), occurrence.startTime(), occurrence.endTime(), 1);
+			}
+		}
+		accumulator.flush(jdbcTemplate);
+	}
+
+	/**
+	 * 把预订时段切分到小时和天，合并后批量 upsert
+	 * 只统计 [from, to) 内的部分，预订数计在开始日期上
+	 */
+	private static class UsageAccumulator {
+
+		private final LocalDateTime from;
+		private final LocalDateTime to;
+		private final Map<List<Object>, Integer> hourly = new HashMap<>();
+		private final Map<List<Object>, int[]> daily = new HashMap<>();
+
+		UsageAccumulator(LocalDateTime from, LocalDateTime to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		void add(Long roomId, LocalDateTime start, LocalDateTime end, int sign) {
+			if (!start.isBefore(to) || !end.isAfter(from)) {
+				return;
+			}
+			if (!start.isBefore(from)) {
+				daily.computeIfAbsent(List.of(roomId, start.toLocalDate()), k -> new int[2])[1] += sign;
+			}
+
+			LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+			while (hour.isBefore(end)) {
+				LocalDateTime next = hour.plusHours(1);
+				if (!hour.isBefore(from) && hour.isBefore(to)) {
+					LocalDateTime pieceStart = start.isAfter(hour) ? start : hour;
+					LocalDateTime pieceEnd = end.isBefore(next) ? end : next;
+					int minutes = (int) ChronoUnit.MINUTES.between(pieceStart, pieceEnd) * sign;
+					hourly.merge(List.of(roomId, hour.toLocalDate(), hour.getHour()), minutes, Integer::sum);
+					daily.computeIfAbsent(List.of(roomId, hour.toLocalDate()), k -> new int[2])[0] += minutes;
+				}
+				hour = next;
+			}
+		}
+
+		void flush(JdbcTemplate jdbcTemplate) {
+			List<Object[]> hourlyRows = new ArrayList<>(hourly.size());
+			hourly.forEach((key, minutes) -> hourlyRows.add(new Object[]{key.get(0), key.get(1), key.get(2), minutes}));
+			List<Object[]> dailyRows = new ArrayList<>(daily.size());
+			daily.forEach((key, values) -> dailyRows.add(new Object[]{key.get(0), key.get(1), values[0], values[1]}));
+
+			if (!hourlyRows.isEmpty()) {
+				jdbcTemplate.batchUpdate(UPSERT_HOURLY, hourlyRows);
+			}
+			if (!dailyRows.isEmpty()) {
+				jdbcTemplate.batchUpdate(UPSERT_DAILY, dailyRows);
+			}
+		}
+	}
+}
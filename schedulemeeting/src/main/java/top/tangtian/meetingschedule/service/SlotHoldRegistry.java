@@ -0,0 +1,141 @@
+package top.tangtian.meetingschedule.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import top.tangtian.meetingschedule.config.BookingConfig;
+import top.tangtian.meetingschedule.dto.SlotHold;
+import top.tangtian.meetingschedule.util.HashedTimingWheel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 会议室时段临时保留
+ * <p>
+ * AI 还在向用户追问组织者、主题等信息时，先把会议室和时段保留几分钟，避免被其他人抢先预订。
+ * 保留只存在于内存中，到期由哈希时间轮批量清理；冲突检查同时比较到期时间，不受 tick 精度影响。
+ * 保留只在本实例内有效，其他实例看不到，多实例部署时需要会话保持（同一会话固定到同一实例）。
+ *
+ * @author tangtian
+ * @date 2025-12-09 14:40
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotHoldRegistry {
+
+	private final BookingConfig config;
+
+	private final Map<String, SlotHold> holds = new ConcurrentHashMap<>();
+
+	// 会议室ID -> 该会议室上的保留
+	private final Map<Long, List<SlotHold>> holdsByRoom = new ConcurrentHashMap<>();
+
+	private HashedTimingWheel<String> expiryWheel;
+
+	@PostConstruct
+	public void start() {
+		expiryWheel = new HashedTimingWheel<>("slot-hold-expiry", Duration.ofSeconds(1), 512, this::expire);
+		expiryWheel.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		expiryWheel.stop();
+	}
+
+	/**
+	 * 尝试保留时段，与其他有效保留重叠时返回空
+	 */
+	public Optional<SlotHold> tryHold(Long roomId, String roomName, LocalDateTime startTime,
+									  LocalDateTime endTime, String holder) {
+		List<SlotHold> roomHolds = holdsByRoom.computeIfAbsent(roomId, k -> new CopyOnWriteArrayList<>());
+
+		// 同一会议室的检查和登记需要原子完成
+		synchronized (roomHolds) {
+			if (conflicts(roomId, startTime, endTime, null)) {
+				return Optional.empty();
+			}
+
+			SlotHold hold = new SlotHold(UUID.randomUUID().toString(), roomId, roomName, startTime, endTime,
+					holder, LocalDateTime.now().plusSeconds(config.getHoldTtlSeconds()));
+			roomHolds.add(hold);
+			holds.put(hold.holdId(), hold);
+			expiryWheel.schedule(hold.holdId(),
+					System.currentTimeMillis() + config.getHoldTtlSeconds() * 1000L);
+
+			log.info("保留时段 - {}, {} 至 {}, 保留人: {}", roomName, startTime, endTime, holder);
+			return Optional.of(hold);
+		}
+	}
+
+	/**
+	 * 时段是否与其他有效保留重叠，excludeHoldId 为请求方自己的保留
+	 */
+	public boolean conflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime, String excludeHoldId) {
+		List<SlotHold> roomHolds = holdsByRoom.get(roomId);
+		if (roomHolds == null || roomHolds.isEmpty()) {
+			return false;
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		return roomHolds.stream()
+				.filter(hold -> !hold.holdId().equals(excludeHoldId))
+				.filter(hold -> hold.expiresAt().isAfter(now))
+				.anyMatch(hold -> hold.overlaps(startTime, endTime));
+	}
+
+	public Optional<SlotHold> get(String holdId) {
+		return Optional.ofNullable(holdId).map(holds::get);
+	}
+
+	/**
+	 * 预订方带来的保留：会议室一致、覆盖预订时段、尚未到期，且保留人为空或与组织者一致时才算本人的保留
+	 */
+	public Optional<SlotHold> matching(String holdId, Long roomId, LocalDateTime startTime, LocalDateTime endTime,
+									   String organizer) {
+		LocalDateTime now = LocalDateTime.now();
+		return get(holdId)
+				.filter(hold -> hold.roomId().equals(roomId))
+				.filter(hold -> hold.covers(startTime, endTime))
+				.filter(hold -> hold.expiresAt().isAfter(now))
+				.filter(hold -> hold.holder() == null || hold.holder().equals(organizer));
+	}
+
+	public void release(String holdId) {
+		if (holdId == null) {
+			return;
+		}
+		SlotHold hold = holds.remove(holdId);
+		if (hold != null) {
+			List<SlotHold> roomHolds = holdsByRoom.get(hold.roomId());
+			if (roomHolds != null) {
+				roomHolds.remove(hold);
+			}
+		}
+	}
+
+	private void expire(List<String> holdIds) {
+		LocalDateTime now = LocalDateTime.now();
+		int expired = 0;
+		for (String holdId : holdIds) {
+			SlotHold hold = holds.get(holdId);
+			if (hold != null && !hold.expiresAt().isAfter(now)) {
+				release(holdId);
+				expired++;
+			}
+		}
+		if (expired > 0) {
+			log.info("释放到期的时段保留 {} 个", expired);
+		}
+	}
+}
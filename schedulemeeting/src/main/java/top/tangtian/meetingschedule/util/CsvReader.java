@@ -0,0 +1,107 @@
+package top.tangtian.meetingschedule.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式 CSV 读取（RFC 4180）
+ * <p>
+ * 逐条返回记录，只缓存当前记录，支持引号内的逗号、换行和双写引号转义。
+ * {@link #getLineNumber()} 为最近一条记录的起始行号，用于错误报告。
+ *
+ * @author tangtian
+ * @date 2025-12-20 09:30
+ */
+public class CsvReader {
+
+	private final Reader reader;
+	private final StringBuilder field = new StringBuilder();
+
+	// 预读的一个字符，-2 表示没有
+	private int peeked = -2;
+	private long line = 1;
+	private long recordLine;
+
+	public CsvReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * 读取下一条记录，文件结束返回 null
+	 */
+	public List<String> next() throws IOException {
+		int c = read();
+		// 跳过空行
+		while (c == '\r' || c == '\n') {
+			c = read();
+		}
+		if (c == -1) {
+			return null;
+		}
+
+		recordLine = line;
+		List<String> record = new ArrayList<>();
+		field.setLength(0);
+		boolean quoted = false;
+		boolean wasQuoted = false;
+
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IOException("第" + recordLine + "行引号未闭合");
+				}
+				if (c == '"') {
+					int n = read();
+					if (n == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						c = n;
+						continue;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.isEmpty() && !wasQuoted) {
+				quoted = true;
+				wasQuoted = true;
+			} else if (c == ',') {
+				record.add(field.toString());
+				field.setLength(0);
+				wasQuoted = false;
+			} else if (c == '\r' || c == '\n' || c == -1) {
+				if (c == '\r') {
+					int n = read();
+					if (n != '\n') {
+						peeked = n;
+					}
+				}
+				record.add(field.toString());
+				return record;
+			} else {
+				field.append((char) c);
+			}
+			c = read();
+		}
+	}
+
+	public long getLineNumber() {
+		return recordLine;
+	}
+
+	private int read() throws IOException {
+		int c;
+		if (peeked != -2) {
+			c = peeked;
+			peeked = -2;
+		} else {
+			c = reader.read();
+		}
+		if (c == '\n') {
+			line++;
+		}
+		return c;
+	}
+}
@@ -0,0 +1,159 @@
+package top.tangtian.meetingschedule.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 哈希时间轮
+ * <p>
+ * 到期时间按 tick 散列到环形槽位，超过一圈的任务记录剩余圈数。工作线程每个 tick 只处理一个槽位，
+ * 调度和到期都是 O(1)，不需要扫描全部任务。同一 tick 到期的任务合并为一批交给处理函数。
+ * 取消只打标记，到达槽位时丢弃。
+ *
+ * @author tangtian
+ * @date 2025-12-09 14:00
+ */
+@Slf4j
+public class HashedTimingWheel<T> {
+
+	private final String name;
+	private final long tickMillis;
+	private final int mask;
+	private final List<ArrayDeque<Timeout<T>>> buckets;
+	private final Consumer<List<T>> expiredHandler;
+
+	// 新任务先进入队列，由工作线程在每个 tick 转移到槽位，槽位只被工作线程访问
+	private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean running = false;
+	private Thread worker;
+	private long startMillis;
+	private long tick;
+
+	public HashedTimingWheel(String name, Duration tickDuration, int wheelSize, Consumer<List<T>> expiredHandler) {
+		if (wheelSize < 2) {
+			throw new IllegalArgumentException("wheelSize must be at least 2");
+		}
+		// 槽位数取2的幂，用位运算代替取模
+		int size = Integer.highestOneBit(wheelSize - 1) << 1;
+		this.name = name;
+		this.tickMillis = Math.max(1, tickDuration.toMillis());
+		this.mask = size - 1;
+		this.buckets = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			buckets.add(new ArrayDeque<>());
+		}
+		this.expiredHandler = expiredHandler;
+	}
+
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		startMillis = System.currentTimeMillis();
+		worker = new Thread(this::run, name);
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	public synchronized void stop() {
+		running = false;
+		if (worker != null) {
+			worker.interrupt();
+		}
+	}
+
+	/**
+	 * 在 deadlineMillis（epoch 毫秒）时到期，精度为一个 tick
+	 */
+	public Timeout<T> schedule(T item, long deadlineMillis) {
+		Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+		pending.add(timeout);
+		return timeout;
+	}
+
+	private void run() {
+		while (running) {
+			long sleepMillis = startMillis + (tick + 1) * tickMillis - System.currentTimeMillis();
+			if (sleepMillis > 0) {
+				try {
+					Thread.sleep(sleepMillis);
+				} catch (InterruptedException e) {
+					continue;
+				}
+			}
+
+			transferPending();
+			List<T> expired = expire(buckets.get((int) (tick & mask)));
+			tick++;
+
+			if (!expired.isEmpty()) {
+				try {
+					expiredHandler.accept(expired);
+				} catch (Exception e) {
+					log.error("时间轮 {} 处理到期任务失败", name, e);
+				}
+			}
+		}
+	}
+
+	private void transferPending() {
+		Timeout<T> timeout;
+		while ((timeout = pending.poll()) != null) {
+			if (timeout.cancelled) {
+				continue;
+			}
+			long calculated = (timeout.deadlineMillis - startMillis) / tickMillis;
+			timeout.remainingRounds = (calculated - tick) / buckets.size();
+			// 已经过期的任务放到当前槽位，本 tick 即到期
+			long ticks = Math.max(calculated, tick);
+			buckets.get((int) (ticks & mask)).add(timeout);
+		}
+	}
+
+	private List<T> expire(ArrayDeque<Timeout<T>> bucket) {
+		List<T> expired = new ArrayList<>();
+		Iterator<Timeout<T>> it = bucket.iterator();
+		while (it.hasNext()) {
+			Timeout<T> timeout = it.next();
+			if (timeout.cancelled) {
+				it.remove();
+			} else if (timeout.remainingRounds <= 0) {
+				it.remove();
+				expired.add(timeout.item);
+			} else {
+				timeout.remainingRounds--;
+			}
+		}
+		return expired;
+	}
+
+	public static final class Timeout<T> {
+		private final T item;
+		private final long deadlineMillis;
+		private long remainingRounds;
+		private volatile boolean cancelled;
+
+		private Timeout(T item, long deadlineMillis) {
+			this.item = item;
+			this.deadlineMillis = deadlineMillis;
+		}
+
+		public T item() {
+			return item;
+		}
+
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package top.tangtian.meetingschedule.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * iCalendar（RFC 5545）输出，按行写入底层流，不在内存中拼接整个日历
+ * <p>
+ * 行以 CRLF 结尾，超过75字节按 UTF-8 字符边界折行。
+ *
+ * @author tangtian
+ * @date 2025-12-21 09:20
+ */
+public class IcsWriter {
+
+	private static final int MAX_LINE_OCTETS = 75;
+	private static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+	private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+	private final Writer writer;
+
+	public IcsWriter(OutputStream out) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 14);
+	}
+
+	/**
+	 * 值已是合法的 iCalendar 格式（日期、枚举、RRULE 等）
+	 */
+	public void property(String name, String value) throws IOException {
+		line(name + ":" + value);
+	}
+
+	/**
+	 * 文本值，转义反斜杠、分号、逗号和换行
+	 */
+	public void text(String name, String value) throws IOException {
+		line(name + ":" + escape(value));
+	}
+
+	/**
+	 * 浮动时间（不带时区），会议室时间都是本地时间
+	 */
+	public void localTime(String name, LocalDateTime value) throws IOException {
+		line(name + ":" + value.format(LOCAL_TIME));
+	}
+
+	public void utcTime(String name, LocalDateTime value) throws IOException {
+		line(name + ":" + value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC_TIME));
+	}
+
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	public static String formatLocal(LocalDateTime value) {
+		return value.format(LOCAL_TIME);
+	}
+
+	static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\\' -> sb.append("\\\\");
+				case ';' -> sb.append("\\;");
+				case ',' -> sb.append("\\,");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> {
+				}
+				default -> sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private void line(String content) throws IOException {
+		int octets = 0;
+		int i = 0;
+		while (i < content.length()) {
+			int codePoint = content.codePointAt(i);
+			int size = utf8Length(codePoint);
+			if (octets + size > MAX_LINE_OCTETS) {
+				// 续行以一个空格开头，空格也占一个字节
+				writer.write("\r\n ");
+				octets = 1;
+			}
+			writer.write(Character.toChars(codePoint));
+			octets += size;
+			i += Character.charCount(codePoint);
+		}
+		writer.write("\r\n");
+	}
+
+	private static int utf8Length(int codePoint) {
+		if (codePoint < 0x80) {
+			return 1;
+		}
+		if (codePoint < 0x800) {
+			return 2;
+		}
+		return codePoint < 0x10000 ? 3 : 4;
+	}
+}
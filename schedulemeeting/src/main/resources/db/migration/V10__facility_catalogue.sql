@@ -0,0 +1,31 @@
+-- 设施目录：把 meeting_room.facilities 自由文本规范化为设施表和关联表
+-- facilities 列保留用于展示，筛选以关联表为准
+CREATE TABLE IF NOT EXISTS facility
+(
+    id   SERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS meeting_room_facility
+(
+    room_id     INTEGER NOT NULL REFERENCES meeting_room (id) ON DELETE CASCADE,
+    facility_id INTEGER NOT NULL REFERENCES facility (id),
+    PRIMARY KEY (room_id, facility_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_meeting_room_facility_facility ON meeting_room_facility (facility_id);
+
+-- 按中英文逗号、顿号拆分已有数据
+INSERT INTO facility (name)
+SELECT DISTINCT trim(f)
+FROM meeting_room r,
+     regexp_split_to_table(coalesce(r.facilities, ''), '[,，、]') AS f
+WHERE trim(f) <> ''
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO meeting_room_facility (room_id, facility_id)
+SELECT DISTINCT r.id, fa.id
+FROM meeting_room r,
+     regexp_split_to_table(coalesce(r.facilities, ''), '[,，、]') AS f
+         JOIN facility fa ON fa.name = trim(f)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,33 @@
+-- 多楼宇：会议室和预订增加 building_id，查询按楼宇隔离
+CREATE TABLE IF NOT EXISTS building
+(
+    id         SERIAL PRIMARY KEY,
+    code       VARCHAR(50)  NOT NULL UNIQUE,
+    name       VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 已有会议室和预订归入默认楼宇
+INSERT INTO building (id, code, name)
+VALUES (1, 'HQ', '总部')
+ON CONFLICT (id) DO NOTHING;
+SELECT setval('building_id_seq', (SELECT max(id) FROM building));
+
+-- 常量默认值只修改元数据，不会重写 room_booking 的历史分区
+ALTER TABLE meeting_room
+    ADD COLUMN IF NOT EXISTS building_id INTEGER NOT NULL DEFAULT 1 REFERENCES building (id);
+ALTER TABLE room_booking
+    ADD COLUMN IF NOT EXISTS building_id INTEGER NOT NULL DEFAULT 1;
+
+-- 预订的楼宇必须与会议室一致，会议室迁移楼宇时级联更新
+ALTER TABLE meeting_room
+    ADD CONSTRAINT meeting_room_id_building_key UNIQUE (id, building_id);
+ALTER TABLE room_booking
+    ADD CONSTRAINT room_booking_room_building_fkey
+        FOREIGN KEY (room_id, building_id) REFERENCES meeting_room (id, building_id) ON UPDATE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_meeting_room_building ON meeting_room (building_id);
+
+-- 按楼宇查询某段时间的预订（状态页、空闲时段）
+CREATE INDEX IF NOT EXISTS idx_room_booking_building_time
+    ON room_booking (building_id, start_time, end_time) WHERE status = 'CONFIRMED';
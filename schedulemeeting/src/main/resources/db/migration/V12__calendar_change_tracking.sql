@@ -0,0 +1,57 @@
+-- 日历订阅增量同步：记录每行最后一次写入的事务ID（xid8 转为 BIGINT）
+-- 不带默认值加列、再设置默认值都只修改元数据，已有行为 NULL，视为早于任何同步令牌
+ALTER TABLE room_booking
+    ADD COLUMN IF NOT EXISTS change_xid BIGINT;
+ALTER TABLE room_booking
+    ALTER COLUMN change_xid SET DEFAULT (pg_current_xact_id()::text::BIGINT);
+
+ALTER TABLE recurring_booking
+    ADD COLUMN IF NOT EXISTS change_xid BIGINT;
+ALTER TABLE recurring_booking
+    ALTER COLUMN change_xid SET DEFAULT (pg_current_xact_id()::text::BIGINT);
+
+CREATE OR REPLACE FUNCTION touch_change_xid() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::text::BIGINT;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS room_booking_touch_change_xid ON room_booking;
+CREATE TRIGGER room_booking_touch_change_xid
+    BEFORE UPDATE
+    ON room_booking
+    FOR EACH ROW
+EXECUTE FUNCTION touch_change_xid();
+
+DROP TRIGGER IF EXISTS recurring_booking_touch_change_xid ON recurring_booking;
+CREATE TRIGGER recurring_booking_touch_change_xid
+    BEFORE UPDATE
+    ON recurring_booking
+    FOR EACH ROW
+EXECUTE FUNCTION touch_change_xid();
+
+-- 取消或改期单次发生时，所属系列视为已变更
+CREATE OR REPLACE FUNCTION touch_recurring_booking_from_override() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE recurring_booking
+    SET change_xid = pg_current_xact_id()::text::BIGINT
+    WHERE id = COALESCE(NEW.recurring_booking_id, OLD.recurring_booking_id);
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS recurring_booking_override_touch ON recurring_booking_override;
+CREATE TRIGGER recurring_booking_override_touch
+    AFTER INSERT OR UPDATE OR DELETE
+    ON recurring_booking_override
+    FOR EACH ROW
+EXECUTE FUNCTION touch_recurring_booking_from_override();
+
+-- 增量查询按会议室或楼宇取令牌之后变更的行
+CREATE INDEX IF NOT EXISTS idx_room_booking_room_change ON room_booking (room_id, change_xid);
+CREATE INDEX IF NOT EXISTS idx_room_booking_building_change ON room_booking (building_id, change_xid);
@@ -0,0 +1,13 @@
+-- 签到与会前提醒，可空列只修改元数据
+ALTER TABLE room_booking
+    ADD COLUMN IF NOT EXISTS checked_in_at TIMESTAMP;
+ALTER TABLE room_booking
+    ADD COLUMN IF NOT EXISTS reminded_at TIMESTAMP;
+
+-- 签到、提醒不算预订内容变更，只在内容列更新时刷新 change_xid，避免日历订阅重新下载
+DROP TRIGGER IF EXISTS room_booking_touch_change_xid ON room_booking;
+CREATE TRIGGER room_booking_touch_change_xid
+    BEFORE UPDATE OF room_id, building_id, title, organizer, description, attendees, start_time, end_time, status
+    ON room_booking
+    FOR EACH ROW
+EXECUTE FUNCTION touch_change_xid();
@@ -0,0 +1,26 @@
+-- 已归档月份不能再建分区：to_regclass 按 search_path 查找，看不到 booking_archive 中的同名表，
+-- 导入历史预订时会在 public 下重建该月分区，之后归档移动同名表失败，归档从此一直中断
+CREATE OR REPLACE FUNCTION create_room_booking_partition(p_month DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::DATE;
+    v_to   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'room_booking_' || to_char(p_month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(format('booking_archive.%I', v_name)) IS NOT NULL THEN
+        RAISE EXCEPTION 'room_booking partition % has been archived, cannot write bookings for %', v_name, v_from
+            USING ERRCODE = 'check_violation';
+    END IF;
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF room_booking FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                       || '(room_id WITH =, tsrange(start_time, end_time) WITH &&) '
+                       || 'WHERE (status = ''CONFIRMED'')',
+                   v_name, v_name || '_no_overlap');
+    RETURN TRUE;
+END
+$$;
@@ -0,0 +1,43 @@
+-- 归档改为 DETACH PARTITION ... CONCURRENTLY（PostgreSQL 14+）
+-- V6 的 archive_room_booking_partitions 在函数内执行普通 DETACH，需要对 room_booking 加 ACCESS EXCLUSIVE 锁，
+-- 等待期间所有预订读写都排在后面。CONCURRENTLY 不能在事务块（包括函数）内执行，
+-- 由 BookingPartitionMaintenance 在自动提交连接上逐个分离，这里只保留查询和移动的部分
+
+DROP FUNCTION IF EXISTS archive_room_booking_partitions(DATE, TEXT);
+
+-- 待归档的分区：ATTACHED 未分离，DETACH_PENDING 并发分离中断（需 FINALIZE），DETACHED 已分离但还在 public
+CREATE OR REPLACE FUNCTION room_booking_partitions_to_archive(p_before DATE)
+    RETURNS TABLE (partition_name TEXT, state TEXT)
+    LANGUAGE sql STABLE AS
+$$
+SELECT c.relname::TEXT,
+       CASE
+           WHEN i.inhrelid IS NULL THEN 'DETACHED'
+           WHEN i.inhdetachpending THEN 'DETACH_PENDING'
+           ELSE 'ATTACHED'
+           END
+FROM pg_class c
+         JOIN pg_namespace n ON n.oid = c.relnamespace
+         LEFT JOIN pg_inherits i ON i.inhrelid = c.oid AND i.inhparent = 'room_booking'::REGCLASS
+WHERE n.nspname = 'public'
+  AND c.relkind = 'r'
+  AND c.relname ~ '^room_booking_\d{4}_\d{2}$'
+  AND to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= p_before
+ORDER BY c.relname
+$$;
+
+-- 已分离的分区移入 booking_archive，指定表空间时同时迁移；仍挂在 room_booking 下时报错
+CREATE OR REPLACE FUNCTION move_archived_room_booking_partition(p_name TEXT, p_tablespace TEXT DEFAULT NULL)
+    RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = format('public.%I', p_name)::REGCLASS) THEN
+        RAISE EXCEPTION 'room_booking partition % is still attached', p_name;
+    END IF;
+    EXECUTE format('ALTER TABLE public.%I SET SCHEMA booking_archive', p_name);
+    IF p_tablespace IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE booking_archive.%I SET TABLESPACE %I', p_name, p_tablespace);
+    END IF;
+END
+$$;
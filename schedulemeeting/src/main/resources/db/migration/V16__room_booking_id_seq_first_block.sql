@@ -0,0 +1,11 @@
+-- 新库的 room_booking_id_seq 第一次 nextval 返回 1，小于步长 50。
+-- Hibernate pooled 优化器遇到这种情况会再取一次号，批量导入按"nextval 为一段ID的上界"计算，
+-- 会分到 -48 ~ 1 的ID。尚未取过号时让第一次 nextval 直接返回 50，两种取号方式得到的都是 1 ~ 50
+DO
+$$
+    BEGIN
+        IF NOT (SELECT is_called FROM room_booking_id_seq) THEN
+            PERFORM setval('room_booking_id_seq', 50, false);
+        END IF;
+    END
+$$;
@@ -0,0 +1,33 @@
+-- 会议室与预订基础表
+-- 使用 IF NOT EXISTS，已有数据库通过 baseline 接入后可安全重放
+
+CREATE TABLE IF NOT EXISTS meeting_room
+(
+    id         SERIAL PRIMARY KEY,
+    name       VARCHAR(100) NOT NULL UNIQUE,
+    capacity   INTEGER      NOT NULL,
+    location   VARCHAR(200),
+    facilities TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS room_booking
+(
+    id          SERIAL PRIMARY KEY,
+    room_id     INTEGER      NOT NULL REFERENCES meeting_room (id),
+    title       VARCHAR(200) NOT NULL,
+    organizer   VARCHAR(100) NOT NULL,
+    start_time  TIMESTAMP    NOT NULL,
+    end_time    TIMESTAMP    NOT NULL,
+    attendees   INTEGER,
+    description TEXT,
+    status      VARCHAR(20) DEFAULT 'CONFIRMED',
+    created_at  TIMESTAMP   DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO meeting_room (name, capacity, location, facilities)
+VALUES ('会议室A', 10, '3楼东侧', '投影仪,白板,视频会议'),
+       ('会议室B', 20, '3楼西侧', '投影仪,白板,音响系统'),
+       ('会议室C', 6, '4楼', '白板,电话会议'),
+       ('大会议厅', 50, '1楼', '投影仪,音响系统,舞台,视频会议')
+ON CONFLICT (name) DO NOTHING;
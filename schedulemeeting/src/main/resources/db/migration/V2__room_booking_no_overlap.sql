@@ -0,0 +1,16 @@
+-- 排他约束需要 GiST 支持 room_id 的等值比较
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- 同一会议室的 CONFIRMED 预订时间段不允许重叠，由数据库保证，多实例部署也不会重复预订
+-- tsrange 默认为 [start, end)，首尾相接的预订不算冲突，与 findConflictingBookings 一致
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'room_booking_no_overlap') THEN
+            ALTER TABLE room_booking
+                ADD CONSTRAINT room_booking_no_overlap
+                    EXCLUDE USING gist (room_id WITH =, tsrange(start_time, end_time) WITH &&)
+                    WHERE (status = 'CONFIRMED');
+        END IF;
+    END
+$$;
@@ -0,0 +1,2 @@
+-- 与 RoomBooking 的 allocationSize 保持一致，Hibernate pooled 优化器一次取号分配50个ID
+ALTER SEQUENCE room_booking_id_seq INCREMENT BY 50;
@@ -0,0 +1,33 @@
+-- 周期预订：一行规则代表整个系列，发生在查询时按窗口展开
+CREATE TABLE IF NOT EXISTS recurring_booking
+(
+    id             SERIAL PRIMARY KEY,
+    room_id        INTEGER      NOT NULL REFERENCES meeting_room (id),
+    title          VARCHAR(200) NOT NULL,
+    organizer      VARCHAR(100) NOT NULL,
+    attendees      INTEGER,
+    description    TEXT,
+    frequency      VARCHAR(10)  NOT NULL,
+    interval_count INTEGER      NOT NULL DEFAULT 1,
+    by_day         VARCHAR(100),
+    start_date     DATE         NOT NULL,
+    until_date     DATE         NOT NULL,
+    start_time     TIME         NOT NULL,
+    end_time       TIME         NOT NULL,
+    status         VARCHAR(20) DEFAULT 'ACTIVE',
+    created_at     TIMESTAMP   DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_recurring_booking_room_until
+    ON recurring_booking (room_id, until_date) WHERE status = 'ACTIVE';
+
+-- 单次发生的例外：取消或改期
+CREATE TABLE IF NOT EXISTS recurring_booking_override
+(
+    recurring_booking_id INTEGER NOT NULL REFERENCES recurring_booking (id) ON DELETE CASCADE,
+    occurrence_date      DATE    NOT NULL,
+    cancelled            BOOLEAN NOT NULL DEFAULT FALSE,
+    new_start_time       TIMESTAMP,
+    new_end_time         TIMESTAMP,
+    PRIMARY KEY (recurring_booking_id, occurrence_date)
+);
@@ -0,0 +1,21 @@
+-- room_booking 查询索引，与 RoomBookingRepository 中的查询一一对应
+
+-- findConflictingBookings / findConfirmedOverlappingInRoom：按会议室查 CONFIRMED 预订的时间重叠
+-- 只索引 CONFIRMED，已取消的历史预订不会让索引膨胀
+CREATE INDEX IF NOT EXISTS idx_room_booking_room_time
+    ON room_booking (room_id, start_time, end_time) WHERE status = 'CONFIRMED';
+
+-- findByOrganizer：按组织者查询并按开始时间排序，索引直接提供顺序
+CREATE INDEX IF NOT EXISTS idx_room_booking_organizer_start
+    ON room_booking (organizer, start_time);
+
+-- findBookingsBetween / findConfirmedOverlapping：按时间窗口的范围查询
+-- 带上 end_time，窗口过滤条件可以在索引内完成
+CREATE INDEX IF NOT EXISTS idx_room_booking_start_end
+    ON room_booking (start_time, end_time);
+
+-- findConfirmedEndingAfter：启动时加载内存索引，只扫描未结束的 CONFIRMED 预订
+CREATE INDEX IF NOT EXISTS idx_room_booking_confirmed_end
+    ON room_booking (end_time) WHERE status = 'CONFIRMED';
+
+ANALYZE room_booking;
@@ -0,0 +1,172 @@
+-- room_booking 按 start_time 按月范围分区
+-- 状态查询和冲突检测只涉及近期数据，分区后可按时间裁剪，历史数据增长不影响热路径
+
+-- 1. 旧表改名让出名称，序列与旧表解绑，避免随旧表一起删除
+ALTER TABLE room_booking RENAME TO room_booking_legacy;
+ALTER TABLE room_booking_legacy RENAME CONSTRAINT room_booking_pkey TO room_booking_legacy_pkey;
+ALTER TABLE room_booking_legacy DROP CONSTRAINT IF EXISTS room_booking_no_overlap;
+DROP INDEX IF EXISTS idx_room_booking_room_time;
+DROP INDEX IF EXISTS idx_room_booking_organizer_start;
+DROP INDEX IF EXISTS idx_room_booking_start_end;
+DROP INDEX IF EXISTS idx_room_booking_confirmed_end;
+ALTER SEQUENCE room_booking_id_seq OWNED BY NONE;
+
+-- 2. 分区父表，主键必须包含分区键
+CREATE TABLE room_booking
+(
+    id          BIGINT       NOT NULL DEFAULT nextval('room_booking_id_seq'),
+    room_id     INTEGER      NOT NULL REFERENCES meeting_room (id),
+    title       VARCHAR(200) NOT NULL,
+    organizer   VARCHAR(100) NOT NULL,
+    start_time  TIMESTAMP    NOT NULL,
+    end_time    TIMESTAMP    NOT NULL,
+    attendees   INTEGER,
+    description TEXT,
+    status      VARCHAR(20) DEFAULT 'CONFIRMED',
+    created_at  TIMESTAMP   DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, start_time),
+    -- 跨分区重叠检查只回看24小时，CONFIRMED 预订不能更长
+    CONSTRAINT room_booking_max_duration
+        CHECK (status <> 'CONFIRMED' OR end_time - start_time <= INTERVAL '24 hours')
+) PARTITION BY RANGE (start_time);
+
+ALTER SEQUENCE room_booking_id_seq OWNED BY room_booking.id;
+
+-- 父表上的索引会自动建到每个分区
+CREATE INDEX idx_room_booking_room_time
+    ON room_booking (room_id, start_time, end_time) WHERE status = 'CONFIRMED';
+CREATE INDEX idx_room_booking_organizer_start
+    ON room_booking (organizer, start_time);
+CREATE INDEX idx_room_booking_start_end
+    ON room_booking (start_time, end_time);
+CREATE INDEX idx_room_booking_confirmed_end
+    ON room_booking (end_time) WHERE status = 'CONFIRMED';
+
+-- 3. 创建单月分区，分区表不支持跨分区的排他约束，每个分区单独添加
+CREATE OR REPLACE FUNCTION create_room_booking_partition(p_month DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::DATE;
+    v_to   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'room_booking_' || to_char(p_month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF room_booking FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                       || '(room_id WITH =, tsrange(start_time, end_time) WITH &&) '
+                       || 'WHERE (status = ''CONFIRMED'')',
+                   v_name, v_name || '_no_overlap');
+    RETURN TRUE;
+END
+$$;
+
+-- 确保从 p_from 所在月份起连续 p_months 个月的分区存在，返回新建的分区数
+CREATE OR REPLACE FUNCTION ensure_room_booking_partitions(p_from DATE, p_months INTEGER) RETURNS INTEGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_created INTEGER := 0;
+BEGIN
+    FOR i IN 0 .. p_months - 1
+        LOOP
+            IF create_room_booking_partition((date_trunc('month', p_from) + make_interval(months => i))::DATE) THEN
+                v_created := v_created + 1;
+            END IF;
+        END LOOP;
+    RETURN v_created;
+END
+$$;
+
+-- 4. 归档：p_before 之前整月的分区从 room_booking 分离并移入 booking_archive 模式，
+--    指定 p_tablespace 时同时迁移到冷存储表空间，返回归档的分区数
+CREATE SCHEMA IF NOT EXISTS booking_archive;
+
+CREATE OR REPLACE FUNCTION archive_room_booking_partitions(p_before DATE, p_tablespace TEXT DEFAULT NULL)
+    RETURNS INTEGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    r       RECORD;
+    v_count INTEGER := 0;
+BEGIN
+    FOR r IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'room_booking'::REGCLASS
+          AND c.relname ~ '^room_booking_\d{4}_\d{2}$'
+          AND to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= p_before
+        ORDER BY c.relname
+        LOOP
+            EXECUTE format('ALTER TABLE room_booking DETACH PARTITION %I', r.relname);
+            EXECUTE format('ALTER TABLE %I SET SCHEMA booking_archive', r.relname);
+            IF p_tablespace IS NOT NULL THEN
+                EXECUTE format('ALTER TABLE booking_archive.%I SET TABLESPACE %I', r.relname, p_tablespace);
+            END IF;
+            v_count := v_count + 1;
+        END LOOP;
+    RETURN v_count;
+END
+$$;
+
+-- 5. 跨分区重叠检查：分区内由各自的排他约束保证，
+--    只有跨月或在月初24小时内开始的预订可能与相邻分区的预订重叠
+CREATE OR REPLACE FUNCTION room_booking_check_cross_partition() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    v_month TIMESTAMP := date_trunc('month', NEW.start_time);
+BEGIN
+    IF NEW.status IS DISTINCT FROM 'CONFIRMED' THEN
+        RETURN NEW;
+    END IF;
+    IF NEW.end_time <= v_month + INTERVAL '1 month' AND NEW.start_time >= v_month + INTERVAL '24 hours' THEN
+        RETURN NEW;
+    END IF;
+
+    -- 同一会议室的边界检查串行执行，避免两个事务在相邻分区同时插入重叠预订
+    PERFORM pg_advisory_xact_lock(hashtext('room_booking'), NEW.room_id);
+
+    IF EXISTS (SELECT 1
+               FROM room_booking b
+               WHERE b.room_id = NEW.room_id
+                 AND b.status = 'CONFIRMED'
+                 AND b.id <> NEW.id
+                 AND b.start_time >= NEW.start_time - INTERVAL '24 hours'
+                 AND b.start_time < NEW.end_time
+                 AND b.end_time > NEW.start_time
+                 AND date_trunc('month', b.start_time) <> v_month) THEN
+        -- 与分区排他约束使用相同的 SQLSTATE，应用层按同一种冲突处理
+        RAISE EXCEPTION 'conflicting key value violates exclusion constraint "room_booking_no_overlap"'
+            USING ERRCODE = 'exclusion_violation', CONSTRAINT = 'room_booking_no_overlap';
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER room_booking_cross_partition_overlap
+    BEFORE INSERT OR UPDATE OF room_id, start_time, end_time, status
+    ON room_booking
+    FOR EACH ROW
+EXECUTE FUNCTION room_booking_check_cross_partition();
+
+-- 6. 为已有数据和未来24个月建分区，迁移数据后删除旧表
+SELECT create_room_booking_partition(m::DATE)
+FROM generate_series(
+             date_trunc('month', LEAST((SELECT min(start_time) FROM room_booking_legacy), now())),
+             date_trunc('month', GREATEST((SELECT max(start_time) FROM room_booking_legacy),
+                                          now() + INTERVAL '24 months')),
+             INTERVAL '1 month') AS m;
+
+INSERT INTO room_booking (id, room_id, title, organizer, start_time, end_time, attendees, description, status,
+                          created_at)
+SELECT id, room_id, title, organizer, start_time, end_time, attendees, description, status, created_at
+FROM room_booking_legacy;
+
+DROP TABLE room_booking_legacy;
+
+ANALYZE room_booking;
@@ -0,0 +1,5 @@
+-- "我的预订" 按 (start_time, id) 键集分页，索引带上 id 后排序和翻页条件都能在索引内完成
+DROP INDEX IF EXISTS idx_room_booking_organizer_start;
+
+CREATE INDEX IF NOT EXISTS idx_room_booking_organizer_start_id
+    ON room_booking (organizer, start_time, id);
@@ -0,0 +1,7 @@
+-- 预订搜索：对标题、组织者、描述建三元组 GIN 索引
+-- PostgreSQL 内置全文检索没有中文分词，三元组按字符切分，中文关键词和模糊匹配都能走索引
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 表达式需与 RoomBookingRepository.searchBookings 中完全一致才能命中索引
+CREATE INDEX IF NOT EXISTS idx_room_booking_search_trgm
+    ON room_booking USING gin ((title || ' ' || organizer || ' ' || coalesce(description, '')) gin_trgm_ops);
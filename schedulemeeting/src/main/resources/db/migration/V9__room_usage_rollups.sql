@@ -0,0 +1,26 @@
+-- 会议室使用率汇总表，预订创建/取消时增量更新，可按时间段重建
+-- 分钟数按小时切分后向下取整，日表的分钟数等于当天各小时之和
+
+-- 每个会议室每天的已预订分钟数和预订数（按开始日期计数）
+CREATE TABLE IF NOT EXISTS room_usage_daily
+(
+    room_id        INTEGER NOT NULL REFERENCES meeting_room (id),
+    usage_date     DATE    NOT NULL,
+    booked_minutes INTEGER NOT NULL DEFAULT 0,
+    booking_count  INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (room_id, usage_date)
+);
+
+-- 每个会议室每天每小时的已预订分钟数，只保存有预订的小时
+CREATE TABLE IF NOT EXISTS room_usage_hourly
+(
+    room_id        INTEGER  NOT NULL REFERENCES meeting_room (id),
+    usage_date     DATE     NOT NULL,
+    usage_hour     SMALLINT NOT NULL,
+    booked_minutes INTEGER  NOT NULL DEFAULT 0,
+    PRIMARY KEY (room_id, usage_date, usage_hour)
+);
+
+-- 看板按日期范围跨会议室汇总
+CREATE INDEX IF NOT EXISTS idx_room_usage_daily_date ON room_usage_daily (usage_date);
+CREATE INDEX IF NOT EXISTS idx_room_usage_hourly_date ON room_usage_hourly (usage_date);
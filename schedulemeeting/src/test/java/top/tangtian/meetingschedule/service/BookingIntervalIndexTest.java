@@ -0,0 +1,193 @@
+package top.tangtian.meetingschedule.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.RoomBooking;
+import top.tangtian.meetingschedule.event.BookingChangeType;
+import top.tangtian.meetingschedule.event.BookingChangedEvent;
+import top.tangtian.meetingschedule.repository.RoomBookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author tangtian
+ * @date 2025-12-28 10:00
+ */
+class BookingIntervalIndexTest {
+
+	private static final long ROOM = 1L;
+
+	private final RoomBookingRepository repository = mock(RoomBookingRepository.class);
+	private final BookingIntervalIndex index = new BookingIntervalIndex(repository);
+
+	// 明天 00:00，测试的预订都放在明天，不受执行时刻影响
+	private LocalDateTime day;
+
+	@BeforeEach
+	void setUp() {
+		day = LocalDate.now().plusDays(1).atStartOfDay();
+	}
+
+	@Test
+	void backToBackSlotsDoNotConflict() {
+		load(booking(10L, at(9), at(10)));
+
+		assertThat(index.hasConflict(ROOM, at(10), at(11))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(8), at(9))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(9), at(10))).isTrue();
+	}
+
+	@Test
+	void partialAndEnclosingOverlapsConflict() {
+		load(booking(10L, at(9), at(10)));
+
+		assertThat(index.hasConflict(ROOM, day.plusHours(9).plusMinutes(30), at(11))).isTrue();
+		assertThat(index.hasConflict(ROOM, at(8), day.plusHours(9).plusMinutes(1))).isTrue();
+		assertThat(index.hasConflict(ROOM, at(8), at(12))).isTrue();
+		assertThat(index.hasConflict(ROOM, day.plusHours(9).plusMinutes(15), day.plusHours(9).plusMinutes(45)))
+				.isTrue();
+	}
+
+	@Test
+	void lowerProbeLooksAtLastSlotStartingBeforeEnd() {
+		load(booking(10L, at(9), at(10)), booking(11L, at(13), at(14)));
+
+		// 两个预订之间的空档
+		assertThat(index.hasConflict(ROOM, at(10), at(13))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(11), at(12))).isFalse();
+		// 结束时间正好是下一个预订的开始时间，lower 不会取到该预订
+		assertThat(index.hasConflict(ROOM, at(12), at(13))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(12), day.plusHours(13).plusMinutes(1))).isTrue();
+		// 与已有预订完全相同的时段
+		assertThat(index.hasConflict(ROOM, at(13), at(14))).isTrue();
+	}
+
+	@Test
+	void otherRoomsAreIndependent() {
+		load(booking(10L, at(9), at(10)));
+
+		assertThat(index.hasConflict(2L, at(9), at(10))).isFalse();
+	}
+
+	@Test
+	void coversOnlyFromTodayAfterLoad() {
+		LocalDateTime today = LocalDate.now().atStartOfDay();
+		assertThat(index.covers(today)).isFalse();
+
+		load();
+
+		assertThat(index.covers(today)).isTrue();
+		assertThat(index.covers(day)).isTrue();
+		assertThat(index.covers(today.minusSeconds(1))).isFalse();
+	}
+
+	@Test
+	void changeEventsUpdateTheLoadedIndex() {
+		load(booking(10L, at(9), at(10)));
+
+		index.onBookingChanged(new BookingChangedEvent(11L, ROOM, at(11), at(12), BookingChangeType.CREATED));
+		index.onBookingChanged(new BookingChangedEvent(10L, ROOM, at(9), at(10), BookingChangeType.CANCELLED));
+
+		assertThat(index.hasConflict(ROOM, at(9), at(10))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(11), at(12))).isTrue();
+	}
+
+	@Test
+	void eventsCommittedDuringLoadAreReplayedOntoTheNewIndex() {
+		// 查询读到的快照里还有 10，读取期间 10 被取消、11 被创建，两条事件都在新索引替换之前到达
+		when(repository.findConfirmedEndingAfter(any())).thenAnswer(invocation -> {
+			index.onBookingChanged(new BookingChangedEvent(10L, ROOM, at(9), at(10), BookingChangeType.CANCELLED));
+			index.onBookingChanged(new BookingChangedEvent(11L, ROOM, at(11), at(12), BookingChangeType.CREATED));
+			return List.of(booking(10L, at(9), at(10)));
+		});
+
+		index.load();
+
+		assertThat(index.hasConflict(ROOM, at(9), at(10))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(11), at(12))).isTrue();
+	}
+
+	@Test
+	void reloadReplacesStaleEntries() {
+		load(booking(10L, at(9), at(10)));
+
+		// 漏掉了 10 的取消事件，重新加载后以数据库为准
+		load(booking(12L, at(15), at(16)));
+
+		assertThat(index.hasConflict(ROOM, at(9), at(10))).isFalse();
+		assertThat(index.hasConflict(ROOM, at(15), at(16))).isTrue();
+		assertThat(index.covers(day)).isTrue();
+	}
+
+	@Test
+	void failedLoadStopsBufferingEvents() {
+		when(repository.findConfirmedEndingAfter(any())).thenThrow(new IllegalStateException("db down"));
+		try {
+			index.load();
+		} catch (IllegalStateException expected) {
+			// 加载失败由调用方重试
+		}
+		assertThat(index.covers(day)).isFalse();
+
+		load(booking(10L, at(9), at(10)));
+		index.onBookingChanged(new BookingChangedEvent(10L, ROOM, at(9), at(10), BookingChangeType.RELEASED));
+
+		assertThat(index.hasConflict(ROOM, at(9), at(10))).isFalse();
+	}
+
+	@Test
+	void evictEndedRemovesSlotsEndingBeforeToday() {
+		LocalDateTime today = LocalDate.now().atStartOfDay();
+		load(booking(10L, at(9), at(10)));
+		// 前一天的预订（如加载后才提交的跨天变更）
+		index.onBookingChanged(new BookingChangedEvent(20L, ROOM, today.minusHours(3), today.minusHours(2),
+				BookingChangeType.CREATED));
+		index.onBookingChanged(new BookingChangedEvent(21L, ROOM, today.minusHours(1), today.plusHours(1),
+				BookingChangeType.CREATED));
+		assertThat(index.hasConflict(ROOM, today.minusHours(3), today.minusHours(2))).isTrue();
+
+		index.evictEnded();
+
+		assertThat(index.hasConflict(ROOM, today.minusHours(3), today.minusHours(2))).isFalse();
+		// 跨零点、今天才结束的预订保留
+		assertThat(index.hasConflict(ROOM, today, today.plusMinutes(30))).isTrue();
+		assertThat(index.hasConflict(ROOM, at(9), at(10))).isTrue();
+		assertThat(index.covers(today)).isTrue();
+		assertThat(index.covers(today.minusSeconds(1))).isFalse();
+	}
+
+	@Test
+	void evictEndedBeforeLoadIsNoOp() {
+		index.evictEnded();
+
+		assertThat(index.covers(day)).isFalse();
+	}
+
+	private void load(RoomBooking... bookings) {
+		// doReturn 不会调用之前的桩，之前的桩抛异常时也能重新设置
+		doReturn(List.of(bookings)).when(repository).findConfirmedEndingAfter(any());
+		index.load();
+	}
+
+	private LocalDateTime at(int hour) {
+		return day.plusHours(hour);
+	}
+
+	private static RoomBooking booking(Long id, LocalDateTime start, LocalDateTime end) {
+		return RoomBooking.builder()
+				.id(id)
+				.room(MeetingRoom.builder().id(ROOM).build())
+				.startTime(start)
+				.endTime(end)
+				.build();
+	}
+}
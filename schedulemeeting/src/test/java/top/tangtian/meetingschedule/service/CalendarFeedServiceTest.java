@@ -0,0 +1,141 @@
+package top.tangtian.meetingschedule.service;
+
+import org.junit.jupiter.api.Test;
+import top.tangtian.meetingschedule.entity.MeetingRoom;
+import top.tangtian.meetingschedule.entity.OccurrenceOverride;
+import top.tangtian.meetingschedule.entity.RecurrenceFrequency;
+import top.tangtian.meetingschedule.entity.RecurringBooking;
+import top.tangtian.meetingschedule.util.IcsWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author tangtian
+ * @date 2025-12-27 10:20
+ */
+class CalendarFeedServiceTest {
+
+	private static final MeetingRoom ROOM = MeetingRoom.builder()
+			.id(1L)
+			.name("A101")
+			.capacity(8)
+			.location("3F")
+			.build();
+
+	@Test
+	void weeklyRruleListsDaysAndUntil() {
+		RecurringBooking series = series(RecurrenceFrequency.WEEKLY, 2, "THURSDAY,TUESDAY");
+
+		assertThat(CalendarFeedService.rrule(series))
+				.isEqualTo("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH;UNTIL=20260331T100000");
+	}
+
+	@Test
+	void dailyRruleHasNoByDay() {
+		RecurringBooking series = series(RecurrenceFrequency.DAILY, 1, null);
+
+		assertThat(CalendarFeedService.rrule(series)).isEqualTo("FREQ=DAILY;INTERVAL=1;UNTIL=20260331T100000");
+	}
+
+	@Test
+	void startsAtFirstOccurrenceNotStartDate() throws IOException {
+		// 2026-01-05 是周一，规则只在周二发生
+		List<String> lines = writeSeries(series(RecurrenceFrequency.WEEKLY, 1, "TUESDAY"));
+
+		assertThat(lines).contains("DTSTART:20260106T090000", "DTEND:20260106T100000");
+	}
+
+	@Test
+	void cancelledOccurrenceIsExcluded() throws IOException {
+		RecurringBooking series = series(RecurrenceFrequency.WEEKLY, 1, "TUESDAY");
+		series.getOverrides().add(OccurrenceOverride.builder()
+				.occurrenceDate(LocalDate.of(2026, 1, 13))
+				.cancelled(true)
+				.build());
+
+		List<String> lines = writeSeries(series);
+
+		assertThat(lines).containsOnlyOnce("EXDATE:20260113T090000");
+		assertThat(lines).noneMatch(line -> line.startsWith("RECURRENCE-ID"));
+		assertThat(count(lines, "BEGIN:VEVENT")).isEqualTo(1);
+	}
+
+	@Test
+	void movedOccurrenceIsReplacedNotExcluded() throws IOException {
+		RecurringBooking series = series(RecurrenceFrequency.WEEKLY, 1, "TUESDAY");
+		series.getOverrides().add(OccurrenceOverride.builder()
+				.occurrenceDate(LocalDate.of(2026, 1, 20))
+				.newStartTime(LocalDateTime.of(2026, 1, 21, 14, 0))
+				.newEndTime(LocalDateTime.of(2026, 1, 21, 15, 0))
+				.build());
+
+		List<String> lines = writeSeries(series);
+
+		assertThat(lines).noneMatch(line -> line.startsWith("EXDATE"));
+		assertThat(count(lines, "BEGIN:VEVENT")).isEqualTo(2);
+		List<String> instance = lines.subList(lines.lastIndexOf("BEGIN:VEVENT"), lines.lastIndexOf("END:VEVENT"));
+		assertThat(instance).contains(
+				"UID:recurring-7@meetingschedule",
+				"RECURRENCE-ID:20260120T090000",
+				"DTSTART:20260121T140000",
+				"DTEND:20260121T150000",
+				"STATUS:CONFIRMED");
+	}
+
+	@Test
+	void cancelledSeriesHasNoInstances() throws IOException {
+		RecurringBooking series = series(RecurrenceFrequency.WEEKLY, 1, "TUESDAY");
+		series.setStatus("CANCELLED");
+		series.getOverrides().add(OccurrenceOverride.builder()
+				.occurrenceDate(LocalDate.of(2026, 1, 20))
+				.newStartTime(LocalDateTime.of(2026, 1, 21, 14, 0))
+				.newEndTime(LocalDateTime.of(2026, 1, 21, 15, 0))
+				.build());
+
+		List<String> lines = writeSeries(series);
+
+		assertThat(count(lines, "BEGIN:VEVENT")).isEqualTo(1);
+		assertThat(lines).contains("STATUS:CANCELLED", "SEQUENCE:1");
+	}
+
+	private static RecurringBooking series(RecurrenceFrequency frequency, int interval, String byDay) {
+		return RecurringBooking.builder()
+				.id(7L)
+				.room(ROOM)
+				.title("周会")
+				.organizer("张三")
+				.frequency(frequency)
+				.interval(interval)
+				.byDay(byDay)
+				.startDate(LocalDate.of(2026, 1, 5))
+				.untilDate(LocalDate.of(2026, 3, 31))
+				.startTime(LocalTime.of(9, 0))
+				.endTime(LocalTime.of(10, 0))
+				.overrides(new ArrayList<>())
+				.createdAt(LocalDateTime.of(2025, 12, 1, 12, 0))
+				.build();
+	}
+
+	private static List<String> writeSeries(RecurringBooking series) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		IcsWriter ics = new IcsWriter(out);
+		CalendarFeedService.writeSeries(ics, series, ROOM);
+		ics.flush();
+		String unfolded = out.toString(StandardCharsets.UTF_8).replace("\r\n ", "");
+		return Arrays.asList(unfolded.split("\r\n"));
+	}
+
+	private static long count(List<String> lines, String line) {
+		return lines.stream().filter(line::equals).count();
+	}
+}
@@ -0,0 +1,142 @@
+package top.tangtian.meetingschedule.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author tangtian
+ * @date 2025-12-28 11:00
+ */
+class HashedTimingWheelTest {
+
+	private static final long TICK = 10;
+
+	// 4 个槽位，一圈 40ms
+	private static final int WHEEL_SIZE = 4;
+
+	private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+	private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel",
+			Duration.ofMillis(TICK), WHEEL_SIZE, items -> batches.add(new Batch(items, System.currentTimeMillis())));
+
+	@AfterEach
+	void tearDown() {
+		wheel.stop();
+	}
+
+	@Test
+	void expiresAfterSeveralRounds() throws InterruptedException {
+		wheel.start();
+		long deadline = System.currentTimeMillis() + 5 * TICK * WHEEL_SIZE;
+		wheel.schedule("a", deadline);
+
+		Batch batch = next();
+
+		assertThat(batch.items()).containsExactly("a");
+		// 槽位每圈都会经过一次，剩余圈数没减到 0 之前不能到期
+		assertThat(batch.at()).isGreaterThanOrEqualTo(deadline);
+	}
+
+	@Test
+	void sameSlotDifferentRoundsExpireSeparately() throws InterruptedException {
+		wheel.start();
+		long deadline = System.currentTimeMillis() + 3 * TICK;
+		// 相差两圈，落在同一个槽位
+		long later = deadline + 2 * TICK * WHEEL_SIZE;
+		wheel.schedule("later", later);
+		wheel.schedule("first", deadline);
+
+		Batch first = next();
+		Batch second = next();
+
+		assertThat(first.items()).containsExactly("first");
+		assertThat(second.items()).containsExactly("later");
+		assertThat(second.at()).isGreaterThanOrEqualTo(later);
+	}
+
+	@Test
+	void cancelledTimeoutNeverExpires() throws InterruptedException {
+		wheel.start();
+		long deadline = System.currentTimeMillis() + 3 * TICK;
+		HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", deadline);
+		wheel.schedule("kept", deadline + TICK * WHEEL_SIZE);
+		cancelled.cancel();
+
+		Batch batch = next();
+
+		assertThat(batch.items()).containsExactly("kept");
+		assertThat(batches.poll(5 * TICK, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void cancelAfterTransferToSlot() throws InterruptedException {
+		wheel.start();
+		long deadline = System.currentTimeMillis() + 2 * TICK * WHEEL_SIZE;
+		HashedTimingWheel.Timeout<String> timeout = wheel.schedule("a", deadline);
+		// 等工作线程把任务从队列转移到槽位后再取消
+		Thread.sleep(3 * TICK);
+		timeout.cancel();
+
+		assertThat(batches.poll(deadline - System.currentTimeMillis() + 10 * TICK, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void timeoutsInSameTickAreHandledAsOneBatch() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5 * TICK;
+		// 启动前调度，保证三个任务在同一个 tick 转移到槽位
+		wheel.schedule("a", deadline);
+		wheel.schedule("b", deadline);
+		wheel.schedule("c", deadline);
+		wheel.start();
+
+		Batch batch = next();
+
+		assertThat(batch.items()).containsExactlyInAnyOrder("a", "b", "c");
+		assertThat(batches.poll(5 * TICK, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void pastDeadlineExpiresOnNextTick() throws InterruptedException {
+		wheel.start();
+		wheel.schedule("late", System.currentTimeMillis() - 1000);
+
+		assertThat(next().items()).containsExactly("late");
+	}
+
+	@Test
+	void handlerFailureDoesNotStopTheWheel() throws InterruptedException {
+		BlockingQueue<String> handled = new LinkedBlockingQueue<>();
+		HashedTimingWheel<String> failing = new HashedTimingWheel<>("failing-wheel", Duration.ofMillis(TICK),
+				WHEEL_SIZE, items -> {
+			handled.addAll(items);
+			throw new IllegalStateException("boom");
+		});
+		failing.start();
+		try {
+			long now = System.currentTimeMillis();
+			failing.schedule("a", now + TICK);
+			failing.schedule("b", now + 4 * TICK);
+
+			assertThat(handled.poll(1, TimeUnit.SECONDS)).isEqualTo("a");
+			assertThat(handled.poll(1, TimeUnit.SECONDS)).isEqualTo("b");
+		} finally {
+			failing.stop();
+		}
+	}
+
+	private Batch next() throws InterruptedException {
+		Batch batch = batches.poll(2, TimeUnit.SECONDS);
+		assertThat(batch).as("timeout did not expire").isNotNull();
+		return batch;
+	}
+
+	private record Batch(List<String> items, long at) {
+	}
+}
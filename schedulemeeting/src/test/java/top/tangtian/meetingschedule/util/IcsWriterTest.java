@@ -0,0 +1,73 @@
+package top.tangtian.meetingschedule.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author tangtian
+ * @date 2025-12-27 10:00
+ */
+class IcsWriterTest {
+
+	@Test
+	void shortLineIsNotFolded() throws IOException {
+		assertThat(write("SUMMARY", "周会")).isEqualTo("SUMMARY:周会\r\n");
+	}
+
+	@Test
+	void foldsLongLinesAt75Octets() throws IOException {
+		String value = "a".repeat(200);
+		String output = write("DESCRIPTION", value);
+
+		String[] lines = output.split("\r\n");
+		assertThat(lines).hasSize(3);
+		for (int i = 0; i < lines.length; i++) {
+			assertThat(lines[i].getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+			if (i > 0) {
+				assertThat(lines[i]).startsWith(" ");
+			}
+		}
+		assertThat(lines[0]).hasSize(75);
+		assertThat(unfold(output)).isEqualTo("DESCRIPTION:" + value + "\r\n");
+	}
+
+	@Test
+	void foldsOnUtf8CharacterBoundaries() throws IOException {
+		// 每个汉字3字节，"SUMMARY:" 8字节，第一行只能放下22个汉字（74字节）
+		String value = "会议室预订".repeat(20);
+		String output = write("SUMMARY", value);
+
+		String[] lines = output.split("\r\n");
+		assertThat(lines[0]).isEqualTo("SUMMARY:" + value.substring(0, 22));
+		for (String line : lines) {
+			byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+			assertThat(bytes.length).isLessThanOrEqualTo(75);
+			// 折行后重新解码不产生替换字符，说明没有拆开多字节字符
+			assertThat(new String(bytes, StandardCharsets.UTF_8)).doesNotContain("\uFFFD");
+		}
+		assertThat(unfold(output)).isEqualTo("SUMMARY:" + value + "\r\n");
+	}
+
+	@Test
+	void escapesTextValues() {
+		assertThat(IcsWriter.escape("a;b,c\\d\r\ne")).isEqualTo("a\\;b\\,c\\\\d\\ne");
+		assertThat(IcsWriter.escape(null)).isEmpty();
+	}
+
+	private static String write(String name, String value) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		IcsWriter ics = new IcsWriter(out);
+		ics.text(name, value);
+		ics.flush();
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static String unfold(String output) {
+		return output.replace("\r\n ", "");
+	}
+}